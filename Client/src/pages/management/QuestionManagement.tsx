@@ -37,6 +37,9 @@ interface Question {
   answers?: Answer[];
 }
 
+// answers added in the form and not saved yet
+const DRAFT_ANSWER_PREFIX = 'draft-';
+
 const QuestionManagement = () => {
   const [searchName, setSearchName] = useState('');
   const [questionType, setQuestionType] = useState(''); 
@@ -108,7 +111,7 @@ const QuestionManagement = () => {
           content: string;
           type: string;
           score: number;
-          answers?: { content: string; isCorrect: boolean }[];
+          answers?: { id?: string; content: string; isCorrect: boolean }[];
         } = {
           content: questionContent,
           type: selectedQuestionType,
@@ -116,7 +119,9 @@ const QuestionManagement = () => {
         };
         
         if (answers.length > 0) {
+          // saved answers keep their id so the server updates them instead of replacing them
           updateData.answers = answers.map(ans => ({
+            id: ans.id?.startsWith(DRAFT_ANSWER_PREFIX) ? undefined : ans.id,
             content: ans.content,
             isCorrect: ans.isCorrect
           }));
@@ -182,7 +187,7 @@ const QuestionManagement = () => {
     }
 
     const newAnswer: Answer = {
-      id: selectedAnswerId || Date.now().toString(),
+      id: selectedAnswerId || `${DRAFT_ANSWER_PREFIX}${Date.now()}`,
       content: answerDescription,
       isCorrect: isCorrect
     };
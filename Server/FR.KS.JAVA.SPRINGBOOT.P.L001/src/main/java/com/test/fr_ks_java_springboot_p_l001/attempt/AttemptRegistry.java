@@ -0,0 +1,448 @@
+package com.test.fr_ks_java_springboot_p_l001.attempt;
+
+import com.test.fr_ks_java_springboot_p_l001.entity.AttemptStatus;
+import com.test.fr_ks_java_springboot_p_l001.exception.AttemptClosedException;
+import com.test.fr_ks_java_springboot_p_l001.exception.NotFoundException;
+import com.test.fr_ks_java_springboot_p_l001.grading.AnswerKey;
+import com.test.fr_ks_java_springboot_p_l001.grading.AnswerKeyCache;
+import com.test.fr_ks_java_springboot_p_l001.grading.GradeResult;
+import com.test.fr_ks_java_springboot_p_l001.grading.ResultCodec;
+import com.test.fr_ks_java_springboot_p_l001.grading.RunningGrade;
+import com.test.fr_ks_java_springboot_p_l001.repository.ExamAttemptBatchRepository;
+import com.test.fr_ks_java_springboot_p_l001.repository.QuizSubmissionBatchRepository;
+import com.test.fr_ks_java_springboot_p_l001.submission.PendingSubmission;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Registry of running exam attempts.
+ * <p>
+ * Live state is held in memory: starting an attempt is a map insert plus an O(1) schedule on a
+ * hashed {@link TimingWheel}, checking one at submit time is a map lookup, and an autosaved
+ * answer only re-grades its own question. A single ticker thread advances the wheel every
+ * {@code tick-ms}; attempts whose deadline (plus {@code grace-seconds}) has passed are
+ * finalised as submissions with the answers they have.
+ * <p>
+ * Autosaves are coalesced: a changed attempt is marked dirty and written to {@code exam_attempts}
+ * by a flusher thread every {@code flush-interval-ms}, or as soon as {@code flush-threshold}
+ * attempts are dirty, so repeated edits of one attempt cost one row write per flush.
+ * Active attempts are reloaded from {@code exam_attempts} on startup.
+ * <p>
+ * A quiz with {@code questionsPerAttempt} gives each attempt a {@link AnswerKey#sample} of its
+ * cached question pool; only the seed is saved, the sample is drawn again on restore.
+ */
+@Slf4j
+@Component
+public class AttemptRegistry implements SmartLifecycle {
+
+    private record Owner(UUID userId, UUID quizId) {}
+
+    private final AnswerKeyCache answerKeyCache;
+    private final QuizSubmissionBatchRepository submissionBatchRepository;
+    private final ExamAttemptBatchRepository attemptBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long tickMillis;
+    private final long graceMillis;
+    private final int untimedMinutes;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int flushThreshold;
+    private final TimingWheel<AttemptSession> wheel;
+    private final Map<UUID, AttemptSession> sessions = new ConcurrentHashMap<>();
+    private final Map<Owner, AttemptSession> byOwner = new ConcurrentHashMap<>();
+    private final Set<AttemptSession> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final Counter expiredCounter;
+    private final Timer flushTimer;
+
+    // touched by the ticker thread only; an attempt stays here until its submission commits
+    private final List<AttemptSession> expired = new ArrayList<>();
+
+    private ScheduledExecutorService ticker;
+    private ScheduledExecutorService flusher;
+
+    public AttemptRegistry(
+            AnswerKeyCache answerKeyCache,
+            QuizSubmissionBatchRepository submissionBatchRepository,
+            ExamAttemptBatchRepository attemptBatchRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${exam.attempt.tick-ms:1000}") long tickMillis,
+            @Value("${exam.attempt.wheel-size:512}") int wheelSize,
+            @Value("${exam.attempt.grace-seconds:30}") long graceSeconds,
+            @Value("${exam.attempt.untimed-minutes:240}") int untimedMinutes,
+            @Value("${exam.attempt.batch-size:500}") int batchSize,
+            @Value("${exam.attempt.flush-interval-ms:5000}") long flushIntervalMs,
+            @Value("${exam.attempt.flush-threshold:500}") int flushThreshold
+    ) {
+        this.answerKeyCache = answerKeyCache;
+        this.submissionBatchRepository = submissionBatchRepository;
+        this.attemptBatchRepository = attemptBatchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tickMillis = tickMillis;
+        this.graceMillis = TimeUnit.SECONDS.toMillis(graceSeconds);
+        this.untimedMinutes = untimedMinutes;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.flushThreshold = flushThreshold;
+        this.wheel = new TimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+
+        Gauge.builder("exam.attempt.active", sessions, Map::size)
+                .description("Exam attempts currently in progress")
+                .register(meterRegistry);
+        Gauge.builder("exam.attempt.dirty", dirty, Set::size)
+                .description("Exam attempts with autosaved answers not yet written")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("exam.attempt.expired")
+                .description("Exam attempts finalised by the deadline")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("exam.attempt.flush")
+                .description("Latency of one autosave batch upsert")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts an attempt, or returns the user's running attempt for the quiz so that
+     * starting again cannot reset the clock. A new attempt is written before returning,
+     * in the caller's transaction; it is dropped from memory again if that rolls back.
+     *
+     * @throws AttemptClosedException if the previous attempt expired and is not recorded yet
+     */
+    public AttemptSession start(UUID userId, UUID quizId, Integer durationMinutes) {
+        int minutes = durationMinutes != null && durationMinutes > 0 ? durationMinutes : untimedMinutes;
+        AnswerKey pool = answerKeyCache.get(quizId);
+        if (pool.questions().isEmpty()) {
+            throw new IllegalArgumentException("Quiz has no questions");
+        }
+        AttemptSession[] created = new AttemptSession[1];
+
+        AttemptSession session = byOwner.compute(new Owner(userId, quizId), (owner, existing) -> {
+            if (existing != null && existing.status() == AttemptStatus.ACTIVE) {
+                return existing;
+            }
+            if (existing != null && existing.status() == AttemptStatus.EXPIRED) {
+                // still queued for the ticker, a second attempt must wait until the first is recorded
+                throw new AttemptClosedException("Attempt " + existing.id() + " expired and is still being recorded");
+            }
+            created[0] = AttemptSession.start(userId, pool.forAttempt(ThreadLocalRandom.current().nextLong()),
+                    Instant.now(), minutes);
+            return created[0];
+        });
+
+        if (created[0] != null) {
+            // already visible in byOwner: a failed write must not leave an attempt that only exists in memory
+            try {
+                attemptBatchRepository.upsertAll(List.of(session.snapshot()));
+                register(session);
+            } catch (RuntimeException ex) {
+                discard(session);
+                throw ex;
+            }
+            afterCompletion(() -> {}, () -> discard(session));
+        }
+        return session;
+    }
+
+    /**
+     * Looks up a running attempt for an answer or a submission.
+     *
+     * @throws NotFoundException      if no running attempt matches the id, user and quiz
+     * @throws AttemptClosedException if the deadline has passed
+     */
+    public AttemptSession open(UUID attemptId, UUID userId, UUID quizId) {
+        AttemptSession session = sessions.get(attemptId);
+        if (session == null || !session.userId().equals(userId)
+                || (quizId != null && !session.quizId().equals(quizId))) {
+            throw new NotFoundException("Attempt not found: " + attemptId);
+        }
+        if (System.currentTimeMillis() > session.deadline().toEpochMilli() + graceMillis) {
+            // left for the ticker, which records the attempt with the answers it has
+            throw new AttemptClosedException("Attempt " + attemptId + " expired at " + session.deadline());
+        }
+        return session;
+    }
+
+    /**
+     * The user's running attempt for the quiz, if any.
+     */
+    public Optional<AttemptSession> findActive(UUID userId, UUID quizId) {
+        AttemptSession session = byOwner.get(new Owner(userId, quizId));
+        return session != null && session.status() == AttemptStatus.ACTIVE ? Optional.of(session) : Optional.empty();
+    }
+
+    /**
+     * Autosaves one answer. The change is kept in memory until the next flush.
+     *
+     * @throws NotFoundException if the question is not part of the quiz
+     */
+    public AttemptSession save(AttemptSession session, UUID questionId, List<UUID> answerIds) {
+        if (!session.answer(questionId, answerIds)) {
+            throw new NotFoundException("Question not in quiz: " + questionId);
+        }
+        dirty.add(session);
+        if (dirty.size() >= flushThreshold && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flush);
+        }
+        return session;
+    }
+
+    /**
+     * Closes the attempt for submission and writes its final state in the caller's transaction.
+     * The attempt leaves memory once that commits; on rollback it is reopened with its answers.
+     *
+     * @return the grade accumulated by the autosaves
+     * @throws AttemptClosedException if the attempt was already submitted or expired
+     */
+    public GradeResult finish(AttemptSession session) {
+        if (!session.transition(AttemptStatus.ACTIVE, AttemptStatus.SUBMITTED)) {
+            throw new AttemptClosedException("Attempt " + session.id() + " is already " + session.status());
+        }
+        session.timeout.cancel();
+        dirty.remove(session);
+        try {
+            attemptBatchRepository.upsertAll(List.of(session.snapshot()));
+        } catch (RuntimeException ex) {
+            reopen(session);
+            throw ex;
+        }
+        afterCompletion(() -> remove(session), () -> reopen(session));
+        return session.result();
+    }
+
+    @Override
+    public void start() {
+        restore();
+
+        ticker = Executors.newSingleThreadScheduledExecutor(daemon("exam-attempt-ticker"));
+        ticker.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+
+        flusher = Executors.newSingleThreadScheduledExecutor(daemon("exam-attempt-flusher"));
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (ticker == null) {
+            return;
+        }
+        for (ScheduledExecutorService executor : List.of(ticker, flusher)) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // last autosaves, the attempts are resumed from exam_attempts on the next start
+        flush();
+        if (!expired.isEmpty()) {
+            // their rows are still ACTIVE, they expire again on the next start
+            log.warn("{} expired exam attempts not recorded at shutdown", expired.size());
+        }
+        log.info("{} exam attempts in progress at shutdown", sessions.size() - expired.size());
+        ticker = null;
+        flusher = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return ticker != null;
+    }
+
+    private void restore() {
+        List<AttemptSnapshot> saved = attemptBatchRepository.findByStatus(AttemptStatus.ACTIVE);
+        int restored = 0;
+
+        for (AttemptSnapshot s : saved) {
+            AnswerKey key;
+            try {
+                key = answerKeyCache.get(s.quizId()).forSample(s.questionSeed(), s.questionCount());
+            } catch (NotFoundException ex) {
+                log.warn("Not resuming attempt {} of deleted quiz {}", s.id(), s.quizId());
+                continue;
+            } catch (IllegalStateException ex) {
+                log.warn("Not resuming attempt {}, its question sample no longer fits quiz {}", s.id(), s.quizId());
+                continue;
+            }
+
+            RunningGrade grade;
+            try {
+                grade = s.results() != null ? RunningGrade.decode(key, s.results()) : new RunningGrade(key);
+            } catch (IllegalStateException ex) {
+                if (key.sampleSeed() != null) {
+                    // the pool changed, the same seed now draws other questions than the ones the user was given
+                    log.warn("Not resuming attempt {}, quiz {} changed since its questions were drawn", s.id(), s.quizId());
+                    continue;
+                }
+                log.warn("Quiz {} changed, answers of attempt {} are discarded", s.quizId(), s.id());
+                grade = new RunningGrade(key);
+            }
+
+            AttemptSession session = AttemptSession.restore(s, grade);
+            byOwner.put(new Owner(session.userId(), session.quizId()), session);
+            register(session);
+            restored++;
+        }
+        if (restored > 0) {
+            log.info("Resumed {} exam attempts", restored);
+        }
+    }
+
+    private void register(AttemptSession session) {
+        session.timeout = wheel.schedule(session, session.deadline().toEpochMilli() + graceMillis);
+        sessions.put(session.id(), session);
+    }
+
+    private void tick() {
+        // an exception escaping here would cancel the schedule
+        try {
+            wheel.advance(System.currentTimeMillis(), session -> {
+                if (session.transition(AttemptStatus.ACTIVE, AttemptStatus.EXPIRED)) {
+                    // the answers go out with the submission, the flusher must not write the row as EXPIRED first
+                    dirty.remove(session);
+                    expired.add(session);
+                }
+            });
+            if (expired.isEmpty()) {
+                return;
+            }
+            finalise(expired);
+            // only now: until the commit the attempt keeps its answers and blocks a second start
+            expired.forEach(this::remove);
+            expired.clear();
+        } catch (RuntimeException ex) {
+            log.error("Failed to finalise {} expired attempts, retrying next tick: {}", expired.size(), ex.getMessage(), ex);
+        }
+    }
+
+    private void finalise(List<AttemptSession> batch) {
+        List<PendingSubmission> submissions = new ArrayList<>(batch.size());
+        List<AttemptSnapshot> attempts = new ArrayList<>(batch.size());
+        for (AttemptSession session : batch) {
+            submissions.add(toSubmission(session));
+            attempts.add(session.snapshot());
+        }
+
+        // submission rows and attempt status commit together, so a resumed attempt is never graded twice
+        transactionTemplate.executeWithoutResult(status -> {
+            inBatches(submissions, submissionBatchRepository::insertAll);
+            inBatches(attempts, attemptBatchRepository::upsertAll);
+        });
+        expiredCounter.increment(submissions.size());
+        log.info("Finalised {} expired exam attempts", submissions.size());
+    }
+
+    private void flush() {
+        flushRequested.set(false);
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        // removed before the snapshot: an answer arriving meanwhile marks the attempt dirty again
+        List<AttemptSession> batch = new ArrayList<>(dirty.size());
+        for (Iterator<AttemptSession> it = dirty.iterator(); it.hasNext(); ) {
+            batch.add(it.next());
+            it.remove();
+        }
+        // expired meanwhile: the ticker writes those together with their submission
+        batch.removeIf(session -> session.status() == AttemptStatus.EXPIRED);
+        List<AttemptSnapshot> snapshots = batch.stream().map(AttemptSession::snapshot).toList();
+
+        try {
+            flushTimer.record(() -> inBatches(snapshots, attemptBatchRepository::upsertAll));
+        } catch (RuntimeException ex) {
+            log.warn("Autosave flush of {} attempts failed, retrying next interval: {}", batch.size(), ex.getMessage());
+            dirty.addAll(batch);
+        }
+    }
+
+    private PendingSubmission toSubmission(AttemptSession session) {
+        AnswerKey key = session.key();
+        GradeResult graded = session.result();
+        double totalScore = key.totalScore();
+        boolean passed = totalScore > 0 && graded.achievedScore() / totalScore * 100 >= 50;
+
+        return PendingSubmission.of(session.userId(), key, graded.achievedScore(), totalScore,
+                passed, ResultCodec.encode(key, graded),
+                LocalDateTime.ofInstant(session.deadline(), ZoneId.systemDefault()), null);
+    }
+
+    private <T> void inBatches(List<T> rows, Consumer<List<T>> writer) {
+        for (int i = 0; i < rows.size(); i += batchSize) {
+            writer.accept(rows.subList(i, Math.min(i + batchSize, rows.size())));
+        }
+    }
+
+    private void remove(AttemptSession session) {
+        sessions.remove(session.id(), session);
+        byOwner.remove(new Owner(session.userId(), session.quizId()), session);
+        dirty.remove(session);
+    }
+
+    private void discard(AttemptSession session) {
+        if (session.timeout != null) {
+            session.timeout.cancel();
+        }
+        remove(session);
+    }
+
+    private void reopen(AttemptSession session) {
+        if (session.transition(AttemptStatus.SUBMITTED, AttemptStatus.ACTIVE)) {
+            session.timeout = wheel.schedule(session, session.deadline().toEpochMilli() + graceMillis);
+            // a flush may have written the SUBMITTED snapshot meanwhile
+            dirty.add(session);
+        }
+    }
+
+    /**
+     * Runs {@code onCommit} once the caller's transaction commits, {@code onRollback} otherwise;
+     * without a transaction the write has already happened and {@code onCommit} runs at once.
+     */
+    private static void afterCompletion(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
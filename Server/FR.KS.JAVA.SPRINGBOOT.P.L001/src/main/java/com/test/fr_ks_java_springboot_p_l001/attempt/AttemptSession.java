@@ -0,0 +1,136 @@
+package com.test.fr_ks_java_springboot_p_l001.attempt;
+
+import com.test.fr_ks_java_springboot_p_l001.entity.AttemptStatus;
+import com.test.fr_ks_java_springboot_p_l001.exception.AttemptClosedException;
+import com.test.fr_ks_java_springboot_p_l001.grading.AnswerKey;
+import com.test.fr_ks_java_springboot_p_l001.grading.GradeResult;
+import com.test.fr_ks_java_springboot_p_l001.grading.ResultCodec;
+import com.test.fr_ks_java_springboot_p_l001.grading.RunningGrade;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * In-memory state of one exam attempt: its deadline, status and {@link RunningGrade}.
+ * The status only ever leaves ACTIVE once, so submit and expiry cannot both finalise it,
+ * and answers are refused once it has.
+ */
+public final class AttemptSession {
+
+    private final UUID id;
+    private final UUID userId;
+    private final UUID quizId;
+    private final Instant startedAt;
+    private final Instant deadline;
+    private final int durationMinutes;
+    private final RunningGrade grade;
+
+    private volatile AttemptStatus status = AttemptStatus.ACTIVE;
+    private long revision;
+
+    TimingWheel.Timeout<AttemptSession> timeout;
+
+    private AttemptSession(UUID id, UUID userId, UUID quizId, Instant startedAt, Instant deadline,
+                           int durationMinutes, RunningGrade grade, long revision) {
+        this.id = id;
+        this.userId = userId;
+        this.quizId = quizId;
+        this.startedAt = startedAt;
+        this.deadline = deadline;
+        this.durationMinutes = durationMinutes;
+        this.grade = grade;
+        this.revision = revision;
+    }
+
+    static AttemptSession start(UUID userId, AnswerKey key, Instant startedAt, int durationMinutes) {
+        return new AttemptSession(UUID.randomUUID(), userId, key.quizId(), startedAt,
+                startedAt.plusSeconds(durationMinutes * 60L), durationMinutes, new RunningGrade(key), 1);
+    }
+
+    static AttemptSession restore(AttemptSnapshot saved, RunningGrade grade) {
+        return new AttemptSession(saved.id(), saved.userId(), saved.quizId(), saved.startedAt(),
+                saved.deadline(), saved.durationMinutes(), grade, saved.revision());
+    }
+
+    public UUID id() {
+        return id;
+    }
+
+    public UUID userId() {
+        return userId;
+    }
+
+    public UUID quizId() {
+        return quizId;
+    }
+
+    public Instant startedAt() {
+        return startedAt;
+    }
+
+    public Instant deadline() {
+        return deadline;
+    }
+
+    public int durationMinutes() {
+        return durationMinutes;
+    }
+
+    public AttemptStatus status() {
+        return status;
+    }
+
+    /**
+     * Answer key the attempt is graded against, fixed when the attempt started.
+     * Its questions, in order, are the attempt's paper.
+     */
+    public AnswerKey key() {
+        return grade.key();
+    }
+
+    public synchronized int answeredCount() {
+        return grade.answeredCount();
+    }
+
+    /**
+     * Replaces the answer of one question and re-grades that question only.
+     *
+     * @return false if the question is not part of the quiz
+     * @throws AttemptClosedException if the attempt is no longer active
+     */
+    public synchronized boolean answer(UUID questionId, List<UUID> answerIds) {
+        if (status != AttemptStatus.ACTIVE) {
+            throw new AttemptClosedException("Attempt " + id + " is already " + status);
+        }
+        if (!grade.answer(questionId, answerIds)) {
+            return false;
+        }
+        revision++;
+        return true;
+    }
+
+    /**
+     * Final grade; stable once the attempt has left ACTIVE.
+     */
+    public synchronized GradeResult result() {
+        return grade.snapshot();
+    }
+
+    synchronized boolean transition(AttemptStatus from, AttemptStatus to) {
+        if (status != from) {
+            return false;
+        }
+        status = to;
+        revision++;
+        return true;
+    }
+
+    synchronized AttemptSnapshot snapshot() {
+        AnswerKey key = grade.key();
+        Long seed = key.sampleSeed();
+        return new AttemptSnapshot(id, userId, quizId, status, startedAt, deadline, durationMinutes,
+                grade.score(), grade.answeredCount(), ResultCodec.encode(key, grade.snapshot()), revision,
+                seed, seed != null ? key.questions().size() : null);
+    }
+}
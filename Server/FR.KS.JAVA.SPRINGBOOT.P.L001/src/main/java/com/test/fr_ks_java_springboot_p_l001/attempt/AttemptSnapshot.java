@@ -0,0 +1,26 @@
+package com.test.fr_ks_java_springboot_p_l001.attempt;
+
+import com.test.fr_ks_java_springboot_p_l001.entity.AttemptStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Point-in-time copy of an {@link AttemptSession}, as written to {@code exam_attempts}.
+ * {@code questionSeed} and {@code questionCount} are null when the attempt has the whole quiz.
+ */
+public record AttemptSnapshot(
+        UUID id,
+        UUID userId,
+        UUID quizId,
+        AttemptStatus status,
+        Instant startedAt,
+        Instant deadline,
+        int durationMinutes,
+        double score,
+        int answeredCount,
+        byte[] results,
+        long revision,
+        Long questionSeed,
+        Integer questionCount
+) {}
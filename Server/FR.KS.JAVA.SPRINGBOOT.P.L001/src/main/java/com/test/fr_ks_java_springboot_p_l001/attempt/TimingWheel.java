@@ -0,0 +1,131 @@
+package com.test.fr_ks_java_springboot_p_l001.attempt;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for coarse deadlines.
+ * <p>
+ * Scheduling and cancelling are O(1) and may be called from any thread. New timeouts go through
+ * a lock-free inbox and are only placed into buckets by the thread calling {@link #advance},
+ * so the buckets themselves need no locking. A deadline further away than one revolution
+ * ({@code tickMillis * wheelSize}) waits in its bucket for the remaining rounds.
+ * Cancelled timeouts are unlinked lazily the next time their bucket is visited.
+ */
+final class TimingWheel<T> {
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    static final class Timeout<T> {
+        private final T item;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private long rounds;
+        private Timeout<T> next;
+
+        private Timeout(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+
+        /**
+         * @return false if the timeout has already fired
+         */
+        boolean cancel() {
+            return state.compareAndSet(PENDING, CANCELLED) || state.get() == CANCELLED;
+        }
+    }
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final int mask;
+    private final Timeout<T>[] buckets;
+    private final Queue<Timeout<T>> inbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMillis and wheelSize must be positive");
+        }
+        int slots = Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.mask = Math.max(slots, 1) - 1;
+        this.buckets = (Timeout<T>[]) new Timeout[mask + 1];
+    }
+
+    Timeout<T> schedule(T item, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(item, deadlineMillis);
+        inbox.add(timeout);
+        size.incrementAndGet();
+        return timeout;
+    }
+
+    /**
+     * Processes every tick up to {@code nowMillis}, handing expired items to {@code onExpired}.
+     * Must always be called from the same thread.
+     */
+    void advance(long nowMillis, Consumer<? super T> onExpired) {
+        long target = (nowMillis - startMillis) / tickMillis;
+        while (tick <= target) {
+            transferInbox();
+            expireBucket((int) (tick & mask), onExpired);
+            tick++;
+        }
+    }
+
+    /**
+     * Timeouts scheduled and not yet fired or swept after cancellation.
+     */
+    int size() {
+        return size.get();
+    }
+
+    private void transferInbox() {
+        Timeout<T> t;
+        while ((t = inbox.poll()) != null) {
+            if (t.state.get() == CANCELLED) {
+                size.decrementAndGet();
+                continue;
+            }
+            // round the deadline up to a tick, never into the past
+            long due = Math.max(Math.ceilDiv(t.deadline - startMillis, tickMillis), tick);
+            t.rounds = (due - tick) / buckets.length;
+
+            int slot = (int) (due & mask);
+            t.next = buckets[slot];
+            buckets[slot] = t;
+        }
+    }
+
+    private void expireBucket(int slot, Consumer<? super T> onExpired) {
+        Timeout<T> t = buckets[slot];
+        Timeout<T> kept = null;
+
+        while (t != null) {
+            Timeout<T> next = t.next;
+            if (t.state.get() == CANCELLED) {
+                size.decrementAndGet();
+            } else if (t.rounds > 0) {
+                t.rounds--;
+                t.next = kept;
+                kept = t;
+            } else if (t.state.compareAndSet(PENDING, EXPIRED)) {
+                size.decrementAndGet();
+                onExpired.accept(t.item);
+            } else {
+                // cancelled concurrently
+                size.decrementAndGet();
+            }
+            t = next;
+        }
+        buckets[slot] = kept;
+    }
+}
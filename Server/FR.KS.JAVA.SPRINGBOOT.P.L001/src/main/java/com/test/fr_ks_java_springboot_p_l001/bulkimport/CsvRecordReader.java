@@ -0,0 +1,115 @@
+package com.test.fr_ks_java_springboot_p_l001.bulkimport;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental RFC 4180 reader: one record at a time, so memory does not depend on the file size.
+ * Fields may be quoted; a quoted field may contain commas, doubled quotes and line breaks.
+ * Blank lines are skipped.
+ */
+public final class CsvRecordReader {
+
+    private final PushbackReader in;
+    private long line = 1;
+    private long recordLine;
+
+    public CsvRecordReader(Reader in) {
+        this.in = new PushbackReader(in, 1);
+    }
+
+    /**
+     * Line number (1-based) where the record last returned by {@link #next()} starts.
+     */
+    public long recordLine() {
+        return recordLine;
+    }
+
+    /**
+     * @return fields of the next record, null at end of input
+     * @throws IllegalArgumentException on an unterminated quoted field
+     */
+    public List<String> next() throws IOException {
+        int c = in.read();
+        // skip blank lines
+        while (c == '\r' || c == '\n') {
+            if (c == '\n') {
+                line++;
+            }
+            c = in.read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        in.unread(c);
+        recordLine = line;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            c = in.read();
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted field starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    int next = in.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            in.unread(next);
+                        }
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '"' -> {
+                    // a quote opens a quoted field only at its start
+                    if (field.isEmpty()) {
+                        quoted = true;
+                    } else {
+                        field.append('"');
+                    }
+                }
+                case ',' -> {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                }
+                case '\r' -> {
+                    // \r\n or a lone \r ends the record
+                    int next = in.read();
+                    if (next != '\n' && next != -1) {
+                        in.unread(next);
+                    }
+                    line++;
+                    fields.add(field.toString());
+                    return fields;
+                }
+                case '\n' -> {
+                    line++;
+                    fields.add(field.toString());
+                    return fields;
+                }
+                case -1 -> {
+                    fields.add(field.toString());
+                    return fields;
+                }
+                default -> field.append((char) c);
+            }
+        }
+    }
+}
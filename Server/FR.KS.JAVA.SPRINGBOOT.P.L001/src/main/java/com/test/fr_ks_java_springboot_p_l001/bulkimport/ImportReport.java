@@ -0,0 +1,43 @@
+package com.test.fr_ks_java_springboot_p_l001.bulkimport;
+
+import com.test.fr_ks_java_springboot_p_l001.dto.BulkImportReport;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts of a running import and the first {@link BulkImportReport#MAX_REPORTED_ERRORS} rejected rows.
+ * Used by the importing thread only.
+ */
+public final class ImportReport {
+
+    private final long start = System.nanoTime();
+    private long total;
+    private long imported;
+    private long failed;
+    private final List<BulkImportReport.RowError> errors = new ArrayList<>();
+
+    public void read() {
+        total++;
+    }
+
+    public void imported(int rows) {
+        imported += rows;
+    }
+
+    public void fail(long line, String error) {
+        failed++;
+        if (errors.size() < BulkImportReport.MAX_REPORTED_ERRORS) {
+            errors.add(new BulkImportReport.RowError(line, error));
+        }
+    }
+
+    public long imported() {
+        return imported;
+    }
+
+    public BulkImportReport finish() {
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        return new BulkImportReport(total, imported, failed, elapsedMs, List.copyOf(errors), failed > errors.size());
+    }
+}
@@ -0,0 +1,17 @@
+package com.test.fr_ks_java_springboot_p_l001.bulkimport;
+
+/**
+ * One row read from an import file: a request, or the reason it could not be read.
+ *
+ * @param line line number in the file (1-based) where the row starts
+ */
+public record ParsedRow<T>(long line, T request, String error) {
+
+    public static <T> ParsedRow<T> of(long line, T request) {
+        return new ParsedRow<>(line, request, null);
+    }
+
+    public static <T> ParsedRow<T> failed(long line, String error) {
+        return new ParsedRow<>(line, null, error);
+    }
+}
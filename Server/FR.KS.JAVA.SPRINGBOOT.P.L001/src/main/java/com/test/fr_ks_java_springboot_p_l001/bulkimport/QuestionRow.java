@@ -0,0 +1,15 @@
+package com.test.fr_ks_java_springboot_p_l001.bulkimport;
+
+import com.test.fr_ks_java_springboot_p_l001.entity.QuestionType;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A validated question ready for a JDBC batch insert, with ids assigned up front
+ * so answers can reference their question within the same batch.
+ */
+public record QuestionRow(UUID id, String content, QuestionType type, int score, List<AnswerRow> answers) {
+
+    public record AnswerRow(UUID id, String content, boolean correct) {}
+}
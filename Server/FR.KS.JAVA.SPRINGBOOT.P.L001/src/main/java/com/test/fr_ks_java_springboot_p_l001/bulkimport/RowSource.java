@@ -0,0 +1,92 @@
+package com.test.fr_ks_java_springboot_p_l001.bulkimport;
+
+import org.springframework.http.MediaType;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Rows of an import file, read one at a time so memory does not depend on the file size.
+ * NDJSON lines are bound to the request type by Jackson, CSV records are handed to a {@link CsvMapper}.
+ */
+public interface RowSource<T> {
+
+    MediaType TEXT_CSV = new MediaType("text", "csv");
+
+    /**
+     * Maps the fields of one CSV record, reporting a bad value as a failed row.
+     */
+    @FunctionalInterface
+    interface CsvMapper<T> {
+        ParsedRow<T> map(long line, List<String> fields);
+    }
+
+    /**
+     * @return null at end of input
+     */
+    ParsedRow<T> next() throws IOException;
+
+    /**
+     * CSV when {@code contentType} is text/csv, NDJSON otherwise.
+     *
+     * @param csvHeader first column of the optional CSV header record, which is skipped
+     */
+    static <T> RowSource<T> open(InputStream in, MediaType contentType, ObjectMapper objectMapper, Class<T> type,
+                                 String csvHeader, CsvMapper<T> csvMapper) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return TEXT_CSV.isCompatibleWith(contentType)
+                ? csv(reader, csvHeader, csvMapper)
+                : ndjson(reader, objectMapper, type);
+    }
+
+    static <T> RowSource<T> ndjson(BufferedReader reader, ObjectMapper objectMapper, Class<T> type) {
+        long[] lineNo = {0};
+        return () -> {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo[0]++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    return ParsedRow.of(lineNo[0], objectMapper.readValue(line, type));
+                } catch (JacksonException e) {
+                    return ParsedRow.failed(lineNo[0], "Malformed row: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        };
+    }
+
+    static <T> RowSource<T> csv(BufferedReader reader, String header, CsvMapper<T> mapper) {
+        CsvRecordReader records = new CsvRecordReader(reader);
+        boolean[] first = {true};
+        boolean[] broken = {false};
+        return () -> {
+            if (broken[0]) {
+                return null;
+            }
+            List<String> fields;
+            try {
+                fields = records.next();
+                if (fields != null && first[0]) {
+                    first[0] = false;
+                    if (fields.get(0).trim().equalsIgnoreCase(header)) {
+                        fields = records.next();
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                // the rest of the file cannot be split into records: report it and stop reading
+                broken[0] = true;
+                return ParsedRow.failed(records.recordLine(), e.getMessage());
+            }
+            return fields == null ? null : mapper.map(records.recordLine(), fields);
+        };
+    }
+}
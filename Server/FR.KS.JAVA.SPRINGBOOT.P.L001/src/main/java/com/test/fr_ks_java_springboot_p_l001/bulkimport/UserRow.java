@@ -0,0 +1,10 @@
+package com.test.fr_ks_java_springboot_p_l001.bulkimport;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A validated user with its password already hashed, ready for a JDBC batch insert.
+ * The id is assigned up front so {@code user_roles} rows can reference it within the same batch.
+ */
+public record UserRow(UUID id, String email, String passwordHash, String fullName, Set<UUID> roleIds) {}
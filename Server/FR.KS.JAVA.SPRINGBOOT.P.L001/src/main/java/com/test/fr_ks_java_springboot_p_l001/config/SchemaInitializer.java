@@ -0,0 +1,63 @@
+package com.test.fr_ks_java_springboot_p_l001.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * PostgreSQL-specific schema that {@code ddl-auto=update} cannot express
+ * (generated columns, GIN indexes...). Every statement is idempotent and runs on each startup,
+ * after Hibernate has created or updated the tables.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SchemaInitializer implements ApplicationRunner {
+
+    private static final List<String> STATEMENTS = List.of(
+            // full-text search on questions: kept current by PostgreSQL on every insert/update.
+            // 'simple' = no stemming or stop words, content mixes Vietnamese and English
+            """
+            ALTER TABLE questions ADD COLUMN IF NOT EXISTS content_tsv tsvector
+                GENERATED ALWAYS AS (to_tsvector('simple'::regconfig, coalesce(content, ''))) STORED
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_questions_content_tsv ON questions USING GIN (content_tsv)",
+            // quiz_questions: one link per (quiz, question), so attach can use ON CONFLICT DO NOTHING.
+            // Duplicates left by the old addQuestions are removed once, before the index exists
+            """
+            DO $$
+            BEGIN
+                IF to_regclass('uk_quiz_questions_quiz_question') IS NULL THEN
+                    DELETE FROM quiz_questions a
+                        USING quiz_questions b
+                        WHERE a.quiz_id = b.quiz_id AND a.question_id = b.question_id AND a.ctid > b.ctid;
+                    CREATE UNIQUE INDEX uk_quiz_questions_quiz_question ON quiz_questions (quiz_id, question_id);
+                END IF;
+            END $$
+            """,
+            // covered by the unique index (quiz_id first)
+            "DROP INDEX IF EXISTS idx_quiz_questions_quiz_id",
+            // never written; refresh tokens are stored hashed in refresh_tokens
+            "ALTER TABLE users DROP COLUMN IF EXISTS refresh_token",
+            // email lookups compare lower(email): login, registration and the bulk import duplicate check
+            "CREATE INDEX IF NOT EXISTS idx_users_email_lower ON users (lower(email))"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (String sql : STATEMENTS) {
+            jdbcTemplate.execute(sql);
+        }
+        log.info("Schema extensions applied ({} statements)", STATEMENTS.size());
+    }
+}
@@ -0,0 +1,58 @@
+package com.test.fr_ks_java_springboot_p_l001.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Hit, miss and put counters of the Hibernate second-level cache, per region, plus the query cache.
+ * Reads {@link Statistics}, so {@code hibernate.generate_statistics} must be on.
+ */
+@Component
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            regionCounter(registry, "hibernate.cache.requests", region, "hit", CacheRegionStatistics::getHitCount);
+            regionCounter(registry, "hibernate.cache.requests", region, "miss", CacheRegionStatistics::getMissCount);
+            regionCounter(registry, "hibernate.cache.puts", region, null, CacheRegionStatistics::getPutCount);
+        }
+
+        FunctionCounter.builder("hibernate.query.cache.requests", statistics, Statistics::getQueryCacheHitCount)
+                .tag("result", "hit")
+                .description("Query cache lookups")
+                .register(registry);
+        FunctionCounter.builder("hibernate.query.cache.requests", statistics, Statistics::getQueryCacheMissCount)
+                .tag("result", "miss")
+                .description("Query cache lookups")
+                .register(registry);
+    }
+
+    private void regionCounter(MeterRegistry registry, String name, String region, String result,
+                               ToLongFunction<CacheRegionStatistics> count) {
+        FunctionCounter.Builder<Statistics> builder = FunctionCounter.builder(name, statistics, s -> {
+                    CacheRegionStatistics stats = s.getCacheRegionStatistics(region);
+                    return stats != null ? count.applyAsLong(stats) : 0;
+                })
+                .tag("region", region)
+                .description("Second-level cache " + (result != null ? "lookups" : "puts"));
+        if (result != null) {
+            builder.tag("result", result);
+        }
+        builder.register(registry);
+    }
+}
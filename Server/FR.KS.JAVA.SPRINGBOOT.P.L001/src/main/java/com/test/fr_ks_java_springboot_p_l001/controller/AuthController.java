@@ -49,6 +49,11 @@ public class AuthController {
                     responseCode = "400",
                     description = "Validation error",
                     content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "429",
+                    description = "Rate limit exceeded or password hashing queue full - retry after the Retry-After header",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
             )
     })
     @PostMapping("/register")
@@ -78,6 +83,11 @@ public class AuthController {
                     responseCode = "400",
                     description = "Validation error",
                     content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "429",
+                    description = "Rate limit exceeded or password hashing queue full - retry after the Retry-After header",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
             )
     })
     @PostMapping("/login")
@@ -100,6 +110,11 @@ public class AuthController {
                     responseCode = "401",
                     description = "Invalid or expired refresh token",
                     content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "429",
+                    description = "Rate limit exceeded - retry after the Retry-After header",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
             )
     })
     @PostMapping("/refresh")
@@ -1,21 +1,35 @@
 package com.test.fr_ks_java_springboot_p_l001.controller;
 
 import com.test.fr_ks_java_springboot_p_l001.dto.ApiResponse;
+import com.test.fr_ks_java_springboot_p_l001.dto.submissions.AttemptProgressResponse;
+import com.test.fr_ks_java_springboot_p_l001.dto.submissions.AutosaveAnswerRequest;
+import com.test.fr_ks_java_springboot_p_l001.dto.submissions.BulkGradeResult;
+import com.test.fr_ks_java_springboot_p_l001.dto.submissions.ExamAttemptResponse;
 import com.test.fr_ks_java_springboot_p_l001.dto.submissions.ExamSubmitRequest;
 import com.test.fr_ks_java_springboot_p_l001.dto.submissions.ExamSubmitResponse;
+import com.test.fr_ks_java_springboot_p_l001.security.JwtPrincipal;
+import com.test.fr_ks_java_springboot_p_l001.service.BulkGradingService;
 import com.test.fr_ks_java_springboot_p_l001.service.examService;
+import com.test.fr_ks_java_springboot_p_l001.submission.SubmissionDeduplicator;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/exam")
@@ -24,6 +38,41 @@ import org.springframework.web.bind.annotation.RestController;
 public class ExamController {
 
     private final examService examService;
+    private final BulkGradingService bulkGradingService;
+    private final SubmissionDeduplicator submissionDeduplicator;
+
+    @Operation(
+            summary = "Start exam attempt",
+            description = """
+            Start a timed attempt of a quiz for the authenticated user.
+            The deadline is the start time plus the quiz duration.
+            
+            **Rules:**
+            - Starting again while an attempt is running returns the running attempt (the clock is not reset)
+            - Submissions sent with the attemptId after the deadline are rejected with 409
+            - Attempts not submitted by the deadline are recorded automatically with the answers they have
+            """
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Attempt started",
+                    content = @Content(schema = @Schema(implementation = ExamAttemptResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "User or Quiz not found",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    @PostMapping("/{quizId}/start")
+    public ResponseEntity<ApiResponse<ExamAttemptResponse>> start(
+            @PathVariable UUID quizId,
+            @AuthenticationPrincipal JwtPrincipal principal) {
+
+        ExamAttemptResponse data = examService.start(quizId, principal.userId());
+        return ResponseEntity.ok(ApiResponse.success(data, "Exam started"));
+    }
 
     @Operation(
             summary = "Submit exam answers",
@@ -38,6 +87,12 @@ public class ExamController {
             **Side Effects:**
             - Saves submission to quiz_submissions table
             - Returns detailed results with per-question breakdown
+            - With attemptId: answers are applied on top of the autosaved ones and the attempt is closed
+            - Without attemptId, a running attempt of the user for the quiz is used the same way
+            
+            **Retries:** send the same Idempotency-Key header on every retry of one submission;
+            a repeated key returns the original result instead of grading again.
+            Reusing a key for a different submission is rejected with 422.
             """
     )
     @ApiResponses(value = {
@@ -55,13 +110,191 @@ public class ExamController {
                     responseCode = "400",
                     description = "Validation error or Quiz is inactive",
                     content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "403",
+                    description = "userId is another user and the caller is not an admin",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "409",
+                    description = "Attempt expired or already submitted",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "422",
+                    description = "Idempotency-Key already used for a different submission",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
             )
     })
     @PostMapping("/submit")
     public ResponseEntity<ApiResponse<ExamSubmitResponse>> submit(
-            @Valid @RequestBody ExamSubmitRequest req) {
+            @Parameter(description = "Client-generated key, the same for every retry of one submission (max 100 chars)")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody ExamSubmitRequest req,
+            @AuthenticationPrincipal JwtPrincipal principal) {
 
-        ExamSubmitResponse data = examService.submit(req);
+        // a submission may close the user's running attempt: only that user (or an admin) may send it
+        if (!principal.isAdmin() && !principal.userId().equals(req.userId())) {
+            throw new AccessDeniedException("Cannot submit for another user");
+        }
+
+        ExamSubmitResponse data = idempotencyKey != null
+                ? submissionDeduplicator.submit(idempotencyKey, req)
+                : examService.submit(req, null, null);
         return ResponseEntity.ok(ApiResponse.success(data, "Exam submitted successfully"));
     }
+
+    @Operation(
+            summary = "Autosave an answer",
+            description = """
+            Save the answer of one question in a running attempt. Sending the question again replaces
+            its answer; an empty list clears it.
+            
+            Answers are kept in memory and graded as they arrive; they are written to the database in
+            batches, so frequent saves are cheap. Correctness is not revealed before submission.
+            """
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Answer saved",
+                    content = @Content(schema = @Schema(implementation = AttemptProgressResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Attempt not found or question not in quiz",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "409",
+                    description = "Attempt expired or already submitted",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    @PutMapping("/attempts/{id}/answers/{questionId}")
+    public ResponseEntity<ApiResponse<AttemptProgressResponse>> saveAnswer(
+            @PathVariable UUID id,
+            @PathVariable UUID questionId,
+            @Valid @RequestBody AutosaveAnswerRequest req,
+            @AuthenticationPrincipal JwtPrincipal principal) {
+
+        AttemptProgressResponse data = examService.saveAnswer(id, questionId, principal.userId(), req);
+        return ResponseEntity.ok(ApiResponse.success(data, "Answer saved"));
+    }
+
+    @Operation(
+            summary = "Submit attempt",
+            description = """
+            Submit a running attempt with its autosaved answers.
+            
+            The attempt has been graded while answers were saved, so submitting only closes it
+            and records the result. Same response as /submit.
+            """
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Exam submitted successfully",
+                    content = @Content(schema = @Schema(implementation = ExamSubmitResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "User or Attempt not found",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "409",
+                    description = "Attempt expired or already submitted",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    @PostMapping("/attempts/{id}/submit")
+    public ResponseEntity<ApiResponse<ExamSubmitResponse>> submitAttempt(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal JwtPrincipal principal) {
+
+        ExamSubmitResponse data = examService.submitAttempt(id, principal.userId());
+        return ResponseEntity.ok(ApiResponse.success(data, "Exam submitted successfully"));
+    }
+
+    @Operation(
+            summary = "Get submission result",
+            description = """
+            Retrieve a stored submission with its per-question breakdown.
+            
+            The breakdown is decoded from the compact results column of quiz_submissions
+            and the cached answer key of the quiz (no join on answers).
+            Users can only read their own submissions, admins can read any.
+            """
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Submission found",
+                    content = @Content(schema = @Schema(implementation = ExamSubmitResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Submission not found or owned by another user",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "409",
+                    description = "The questions of the quiz changed since the submission was graded",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    @GetMapping("/submissions/{id}")
+    public ResponseEntity<ApiResponse<ExamSubmitResponse>> getSubmission(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal JwtPrincipal principal
+    ) {
+        return ResponseEntity.ok(ApiResponse.success(examService.getSubmission(id, principal), "Submission found"));
+    }
+
+    @Operation(
+            summary = "Bulk grade answer sheets (Admin only)",
+            description = """
+            Grade a large batch of answer sheets for one quiz in a single request.
+            
+            **Request body:** NDJSON, one ExamSubmitRequest per line. quizId may be omitted;
+            if present it must match the path.
+            
+            **Processing:**
+            - The answer key is loaded once for the whole upload
+            - Sheets are graded in parallel in chunks, each chunk saved with one batch insert
+            
+            **Response body:** NDJSON, one BulkGradeResult per sheet streamed as each chunk completes,
+            followed by a final BulkGradeSummary line with throughput (sheets per second).
+            Rejected sheets carry an error and are not saved.
+            """
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Result stream",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = BulkGradeResult.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Quiz not found",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(
+            value = "/{quizId}/bulk-grade",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public ResponseEntity<StreamingResponseBody> bulkGrade(
+            @PathVariable UUID quizId,
+            HttpServletRequest request) throws IOException {
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bulkGradingService.grade(quizId, request.getInputStream()));
+    }
 }
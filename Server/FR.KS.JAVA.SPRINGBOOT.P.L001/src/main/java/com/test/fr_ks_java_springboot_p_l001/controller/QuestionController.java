@@ -1,9 +1,13 @@
 package com.test.fr_ks_java_springboot_p_l001.controller;
 
 import com.test.fr_ks_java_springboot_p_l001.dto.ApiResponse;
+import com.test.fr_ks_java_springboot_p_l001.dto.BulkImportReport;
+import com.test.fr_ks_java_springboot_p_l001.dto.CursorPageResponse;
 import com.test.fr_ks_java_springboot_p_l001.dto.PageResponseDTO;
 import com.test.fr_ks_java_springboot_p_l001.dto.question.questionRequest;
 import com.test.fr_ks_java_springboot_p_l001.dto.question.questionResponse;
+import com.test.fr_ks_java_springboot_p_l001.entity.QuestionType;
+import com.test.fr_ks_java_springboot_p_l001.service.QuestionImportService;
 import com.test.fr_ks_java_springboot_p_l001.service.questionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,15 +15,18 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.UUID;
 
 @Tag(name = "Questions", description = "Question management APIs - Create questions with answers, manage question bank (Admin CRUD, Public Read)")
@@ -29,6 +36,7 @@ import java.util.UUID;
 public class QuestionController {
 
     private final questionService questionService;
+    private final QuestionImportService questionImportService;
 
     @Operation(
             summary = "Create new question",
@@ -83,6 +91,108 @@ public class QuestionController {
         return ResponseEntity.ok(ApiResponse.success(data, "Questions retrieved successfully"));
     }
 
+    @Operation(
+            summary = "Get questions by cursor",
+            description = """
+            Retrieve questions newest first with keyset pagination.
+            
+            **Usage:**
+            - Omit cursor for the first page
+            - Pass nextCursor of the previous page to get the next one; it is absent on the last page
+            - Every page costs the same however deep it is (no OFFSET, no total count)
+            """
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Questions retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CursorPageResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<ApiResponse<CursorPageResponse<questionResponse>>> getPage(
+            @Parameter(description = "nextCursor of the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, at most 100", example = "20") @RequestParam(defaultValue = "20") int size) {
+
+        CursorPageResponse<questionResponse> data = questionService.getPage(cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(data, "Questions retrieved successfully"));
+    }
+
+    @Operation(
+            summary = "Bulk import questions (Admin only)",
+            description = """
+            Import a question bank in one request.
+            
+            **Request body**, by Content-Type:
+            - application/x-ndjson: one question request (content, type, score, answers) per line
+            - text/csv: content, type, score, then one answer, isCorrect pair per answer;
+              an optional header row starting with "content" is skipped
+            
+            **Processing:**
+            - The upload is read row by row, each row validated like POST /api/v1/questions
+            - Valid rows are written with JDBC batch inserts, one transaction per chunk
+            - Invalid rows are reported with their line number and do not abort the import
+            """
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Import report",
+                    content = @Content(schema = @Schema(implementation = BulkImportReport.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "403",
+                    description = "Access denied - Requires ADMIN role",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<ApiResponse<BulkImportReport>> importQuestions(
+            HttpServletRequest request) throws IOException {
+
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        BulkImportReport report = questionImportService.importQuestions(request.getInputStream(), contentType);
+        return ResponseEntity.ok(ApiResponse.success(report, "Imported " + report.imported() + " of " + report.total() + " questions"));
+    }
+
+    @Operation(
+            summary = "Search questions (Admin only)",
+            description = """
+            Full-text search over question content, most relevant first.
+            
+            **Query syntax:** words are matched whole and case-insensitively; "quoted phrase",
+            OR and -excluded are supported. Without q, questions are only filtered by type.
+            """
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Questions retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = PageResponseDTO.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "403",
+                    description = "Access denied - Requires ADMIN role",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<PageResponseDTO<questionResponse>>> search(
+            @Parameter(description = "Search text", example = "java collections") @RequestParam(required = false) String q,
+            @Parameter(description = "Question type filter") @RequestParam(required = false) QuestionType type,
+            @ParameterObject Pageable pageable
+    ) {
+        PageResponseDTO<questionResponse> data = questionService.searchWithPaging(q, type, pageable);
+        return ResponseEntity.ok(ApiResponse.success(data, "Questions retrieved successfully"));
+    }
+
     @Operation(
             summary = "Get question by ID",
             description = "Retrieve detailed information about a specific question including answers and associated quizzes"
@@ -109,7 +219,8 @@ public class QuestionController {
 
     @Operation(
             summary = "Update question",
-            description = "Update question content, type, score, and answer choices. Does not affect quiz assignments."
+            description = "Update question content, type, score, and answer choices. Does not affect quiz assignments. "
+                    + "Saved answers are matched by id; answers without an id are added, saved answers left out are removed."
     )
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -117,6 +228,11 @@ public class QuestionController {
                     description = "Question updated successfully",
                     content = @Content(schema = @Schema(implementation = questionResponse.class))
             ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "An answer id is repeated or belongs to another question",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
                     responseCode = "404",
                     description = "Question not found",
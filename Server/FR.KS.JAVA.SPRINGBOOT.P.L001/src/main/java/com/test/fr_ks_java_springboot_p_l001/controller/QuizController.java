@@ -1,11 +1,18 @@
 package com.test.fr_ks_java_springboot_p_l001.controller;
 
+import com.test.fr_ks_java_springboot_p_l001.delivery.QuizSnapshot;
 import com.test.fr_ks_java_springboot_p_l001.dto.ApiResponse;
+import com.test.fr_ks_java_springboot_p_l001.dto.CursorPageResponse;
 import com.test.fr_ks_java_springboot_p_l001.dto.PageResponseDTO;
+import com.test.fr_ks_java_springboot_p_l001.dto.quiz.QuizDetailsResponse;
+import com.test.fr_ks_java_springboot_p_l001.dto.quiz.QuizQuestionsResponse;
 import com.test.fr_ks_java_springboot_p_l001.dto.quiz.QuizRequest;
 import com.test.fr_ks_java_springboot_p_l001.dto.quiz.QuizResponse;
+import com.test.fr_ks_java_springboot_p_l001.dto.question.QuestionExport;
+import com.test.fr_ks_java_springboot_p_l001.service.QuestionExportService;
 import com.test.fr_ks_java_springboot_p_l001.service.QuizService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -14,10 +21,15 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -29,6 +41,7 @@ import java.util.UUID;
 public class QuizController {
 
     private final QuizService quizService;
+    private final QuestionExportService questionExportService;
 
 
     @Operation(
@@ -82,6 +95,38 @@ public class QuizController {
         return ResponseEntity.ok(ApiResponse.success(data, "Quizzes retrieved successfully"));
     }
 
+    @Operation(
+            summary = "Get quizzes by cursor",
+            description = """
+            Retrieve quizzes newest first with keyset pagination.
+            
+            **Usage:**
+            - Omit cursor for the first page
+            - Pass nextCursor of the previous page to get the next one; it is absent on the last page
+            - Every page costs the same however deep it is (no OFFSET, no total count)
+            """
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Quizzes retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CursorPageResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<ApiResponse<CursorPageResponse<QuizResponse>>> getPage(
+            @Parameter(description = "nextCursor of the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, at most 100", example = "20") @RequestParam(defaultValue = "20") int size) {
+
+        CursorPageResponse<QuizResponse> data = quizService.getPage(cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(data, "Quizzes retrieved successfully"));
+    }
+
     @Operation(
             summary = "Get quiz by ID",
             description = "Retrieve basic quiz information without questions. Use /details endpoint to get questions."
@@ -104,6 +149,85 @@ public class QuizController {
                 ApiResponse.success(quizService.getById(id), "Quiz found"));
     }
 
+    @Operation(
+            summary = "Get quiz details",
+            description = """
+            Retrieve a quiz with its active questions and answer options, for taking the exam.
+            Correctness flags are not included.
+            
+            **Caching:**
+            - The response is serialized once per version of the quiz and served from memory
+            - A strong ETag is returned; send it back in If-None-Match to get 304 Not Modified
+            - Any change to the quiz or its questions produces a new ETag
+            """
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Quiz details retrieved",
+                    content = @Content(schema = @Schema(implementation = QuizDetailsResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "304",
+                    description = "Not modified since the ETag sent in If-None-Match"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Quiz not found",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    @GetMapping(value = "/{id}/details", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getDetails(@PathVariable UUID id) {
+        QuizSnapshot snapshot = quizService.getDetails(id);
+        // Spring answers 304 itself when If-None-Match matches the ETag
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(snapshot.body());
+    }
+
+    @Operation(
+            summary = "Export quiz questions (NDJSON)",
+            description = """
+            Stream the active questions of a quiz with their answers, one JSON object per line,
+            for backup or migration. Each line is accepted as is by POST /api/v1/questions/import.
+            
+            **Streaming:**
+            - Rows are read with a forward-only database cursor, a fixed number at a time
+            - Lines are written as they are read, memory use does not depend on the size of the bank
+            """
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Questions streamed, one per line",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = QuestionExport.class)
+                    )
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "403",
+                    description = "Access denied - Requires ADMIN role",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Quiz not found",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(value = "/{id}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable UUID id) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("quiz-" + id + ".ndjson").build().toString())
+                .body(questionExportService.exportQuiz(id));
+    }
+
     @Operation(
             summary = "Update quiz",
             description = "Update quiz metadata (title, description, duration, active status). Does not affect questions."
@@ -163,14 +287,17 @@ public class QuizController {
     }
 
     @Operation(
-            summary = "Add question to quiz",
-            description = "Add one question to a quiz. Question must already exist. Idempotent - won't add duplicates."
+            summary = "Add questions to quiz",
+            description = """
+            Add existing questions to a quiz in one statement. Idempotent - questions already in the quiz are skipped.
+            If any question does not exist or is deleted, nothing is added.
+            """
     )
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
                     responseCode = "200",
-                    description = "Question added successfully",
-                    content = @Content(schema = @Schema(implementation = QuizResponse.class))
+                    description = "Questions added successfully",
+                    content = @Content(schema = @Schema(implementation = QuizQuestionsResponse.class))
             ),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
                     responseCode = "404",
@@ -185,11 +312,42 @@ public class QuizController {
     })
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping("/{id}/questions")
-    public ResponseEntity<ApiResponse<Void>> addQuestions(
+    public ResponseEntity<ApiResponse<QuizQuestionsResponse>> addQuestions(
+            @PathVariable UUID id,
+            @RequestBody List<UUID> questionIds) {
+
+        QuizQuestionsResponse data = quizService.addQuestions(id, questionIds);
+        return ResponseEntity.ok(ApiResponse.success(data, "Questions added to quiz"));
+    }
+
+    @Operation(
+            summary = "Remove questions from quiz",
+            description = "Remove questions from a quiz in one statement. Idempotent - questions not in the quiz are ignored."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Questions removed successfully",
+                    content = @Content(schema = @Schema(implementation = QuizQuestionsResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Quiz not found",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "403",
+                    description = "Access denied - Requires ADMIN role",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/{id}/questions")
+    public ResponseEntity<ApiResponse<QuizQuestionsResponse>> removeQuestions(
             @PathVariable UUID id,
             @RequestBody List<UUID> questionIds) {
 
-        quizService.addQuestions(id, questionIds);
-        return ResponseEntity.ok(ApiResponse.success(null, "Questions added to quiz"));
+        QuizQuestionsResponse data = quizService.removeQuestions(id, questionIds);
+        return ResponseEntity.ok(ApiResponse.success(data, "Questions removed from quiz"));
     }
 }
@@ -0,0 +1,64 @@
+package com.test.fr_ks_java_springboot_p_l001.controller;
+
+import com.test.fr_ks_java_springboot_p_l001.dto.ApiResponse;
+import com.test.fr_ks_java_springboot_p_l001.dto.regrade.RegradeJobResponse;
+import com.test.fr_ks_java_springboot_p_l001.service.RegradeJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/regrade-jobs")
+@RequiredArgsConstructor
+@Tag(name = "Regrade")
+public class RegradeJobController {
+
+    private final RegradeJobService regradeJobService;
+
+    @Operation(
+            summary = "Get regrade job progress (Admin only)",
+            description = """
+            A regrade job is started when a question's correct answers, type or score are updated.
+            It re-scores every stored submission of one quiz in the background.
+            
+            **Status:** PENDING, RUNNING, COMPLETED, FAILED, or SUPERSEDED when a newer
+            change of the same quiz started another job.
+            """
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Regrade job found",
+                    content = @Content(schema = @Schema(implementation = RegradeJobResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Regrade job not found",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<RegradeJobResponse>> getById(@PathVariable UUID id) {
+        return ResponseEntity.ok(ApiResponse.success(regradeJobService.getById(id), "Regrade job found"));
+    }
+
+    @Operation(
+            summary = "List regrade jobs of a quiz (Admin only)",
+            description = "Regrade jobs of the quiz, newest first."
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<RegradeJobResponse>>> getByQuiz(@RequestParam UUID quizId) {
+        return ResponseEntity.ok(ApiResponse.success(regradeJobService.getByQuiz(quizId), "Regrade jobs retrieved"));
+    }
+}
@@ -1,23 +1,30 @@
 package com.test.fr_ks_java_springboot_p_l001.controller;
 
 import com.test.fr_ks_java_springboot_p_l001.dto.ApiResponse;
+import com.test.fr_ks_java_springboot_p_l001.dto.BulkImportReport;
+import com.test.fr_ks_java_springboot_p_l001.dto.CursorPageResponse;
 import com.test.fr_ks_java_springboot_p_l001.dto.PageResponseDTO;
 import com.test.fr_ks_java_springboot_p_l001.dto.user.UserRequest;
 import com.test.fr_ks_java_springboot_p_l001.dto.user.UserResponse;
+import com.test.fr_ks_java_springboot_p_l001.service.UserImportService;
 import com.test.fr_ks_java_springboot_p_l001.service.userService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.UUID;
 
 @RestController
@@ -26,6 +33,7 @@ import java.util.UUID;
 public class UserController {
 
     private final userService userS;
+    private final UserImportService userImportService;
 
     @Operation(
             summary = "Create new user",
@@ -65,6 +73,46 @@ public class UserController {
     }
 
 
+    @Operation(
+            summary = "Bulk import users (Admin only)",
+            description = """
+            Create a whole cohort of users in one request.
+            
+            **Request body**, by Content-Type:
+            - application/x-ndjson: one user (email, password, fullName, roles) per line
+            - text/csv: email, password, fullName, then optionally the roles separated by ';';
+              an optional header row starting with "email" is skipped
+            
+            **Processing:**
+            - Each row is validated like POST /api/v1/users; users without roles get ROLE_USER
+            - Emails already taken, or repeated in the file, are rejected and reported
+            - Passwords are hashed in parallel, users and their roles written with JDBC batch inserts,
+              one transaction per chunk
+            - Invalid rows are reported with their line number and do not abort the import
+            """
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Import report",
+                    content = @Content(schema = @Schema(implementation = BulkImportReport.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "403",
+                    description = "Access denied - Requires ADMIN role",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<ApiResponse<BulkImportReport>> importUsers(
+            HttpServletRequest request) throws IOException {
+
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        BulkImportReport report = userImportService.importUsers(request.getInputStream(), contentType);
+        return ResponseEntity.ok(ApiResponse.success(report, "Imported " + report.imported() + " of " + report.total() + " users"));
+    }
+
     @Operation(
             summary = "Get all users",
             description = "Retrieve paginated list of all users. Admin only."
@@ -90,6 +138,44 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success(data, "Users retrieved successfully"));
     }
 
+    @Operation(
+            summary = "Get users by cursor",
+            description = """
+            Retrieve users newest first with keyset pagination.
+            
+            **Usage:**
+            - Omit cursor for the first page
+            - Pass nextCursor of the previous page to get the next one; it is absent on the last page
+            - Every page costs the same however deep it is (no OFFSET, no total count)
+            """
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Users retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CursorPageResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "403",
+                    description = "Access denied - Requires ADMIN role",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/cursor")
+    public ResponseEntity<ApiResponse<CursorPageResponse<UserResponse>>> getPage(
+            @Parameter(description = "nextCursor of the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, at most 100", example = "20") @RequestParam(defaultValue = "20") int size) {
+
+        CursorPageResponse<UserResponse> data = userS.getPage(cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(data, "Users retrieved successfully"));
+    }
+
     @Operation(
             summary = "Get user by ID",
             description = "Retrieve user details by user ID"
@@ -0,0 +1,12 @@
+package com.test.fr_ks_java_springboot_p_l001.delivery;
+
+import java.util.UUID;
+
+/**
+ * Serialized quiz details served to students.
+ *
+ * @param body JSON of the response envelope, written to the client as is; the envelope is built
+ *             per request around the cached details
+ * @param etag strong validator of this version of the quiz, quoted
+ */
+public record QuizSnapshot(UUID quizId, byte[] body, String etag) {}
@@ -0,0 +1,223 @@
+package com.test.fr_ks_java_springboot_p_l001.delivery;
+
+import com.test.fr_ks_java_springboot_p_l001.dto.ApiResponse;
+import com.test.fr_ks_java_springboot_p_l001.dto.quiz.QuizDetailsResponse;
+import com.test.fr_ks_java_springboot_p_l001.entity.Answer;
+import com.test.fr_ks_java_springboot_p_l001.entity.BaseEntity;
+import com.test.fr_ks_java_springboot_p_l001.entity.Question;
+import com.test.fr_ks_java_springboot_p_l001.entity.Quiz;
+import com.test.fr_ks_java_springboot_p_l001.exception.NotFoundException;
+import com.test.fr_ks_java_springboot_p_l001.repository.QuizRepository;
+import com.test.fr_ks_java_springboot_p_l001.repository.questionRepository;
+import com.test.fr_ks_java_springboot_p_l001.service.QuizContentChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory cache of {@link QuizSnapshot} per quiz.
+ * <p>
+ * The details are serialized once per version of the quiz: one query for the quiz, one for its
+ * active questions with their answers, one Jackson pass. Later reads reuse the same bytes without
+ * touching the database; only the small response envelope (timestamp, status, message) is written
+ * per request around them. Entries are evicted after any committed change to the quiz content;
+ * at most {@code max-entries} quizzes are kept.
+ * <p>
+ * A load runs outside the map: the first reader of a quiz registers a future and builds it, readers
+ * arriving meanwhile wait on that future, and other quizzes are not held up.
+ */
+@Slf4j
+@Component
+public class QuizSnapshotCache {
+
+    private final QuizRepository quizRepository;
+    private final questionRepository questionRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int maxEntries;
+
+    private static final String MESSAGE = "Quiz details retrieved";
+    private static final byte[] DATA_FIELD = ",\"data\":".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * @param data JSON of {@link QuizDetailsResponse}
+     */
+    private record Details(byte[] data, String etag) {}
+
+    private final Map<UUID, CompletableFuture<Details>> snapshots = new ConcurrentHashMap<>();
+
+    public QuizSnapshotCache(
+            QuizRepository quizRepository,
+            questionRepository questionRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${exam.quiz-details.cache.max-entries:1000}") int maxEntries
+    ) {
+        this.quizRepository = quizRepository;
+        this.questionRepository = questionRepository;
+        this.objectMapper = objectMapper;
+        // a cache hit must not open a transaction (and borrow a connection), only a load does
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxEntries = maxEntries;
+    }
+
+    public QuizSnapshot get(UUID quizId) {
+        Details details = await(snapshots.get(quizId));
+        if (details == null) {
+            details = build(quizId);
+        }
+        return new QuizSnapshot(quizId, envelope(details.data()), details.etag());
+    }
+
+    private Details build(UUID quizId) {
+        if (snapshots.size() >= maxEntries) {
+            // no recency tracking: drop any entry, a hot quiz is rebuilt on its next read
+            Iterator<UUID> it = snapshots.keySet().iterator();
+            if (it.hasNext()) {
+                snapshots.remove(it.next());
+            }
+        }
+        CompletableFuture<Details> mine = new CompletableFuture<>();
+        CompletableFuture<Details> running = snapshots.putIfAbsent(quizId, mine);
+        if (running != null) {
+            return await(running);
+        }
+        // an eviction during the build removes this future, so a stale build is never kept
+        try {
+            Details details = readOnlyTransaction.execute(s -> load(quizId));
+            mine.complete(details);
+            return details;
+        } catch (RuntimeException ex) {
+            // not cached: the next read tries again
+            snapshots.remove(quizId, mine);
+            mine.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Success envelope of the current request with the cached details spliced in as its data.
+     */
+    private byte[] envelope(byte[] data) {
+        // data is null here, so the envelope has no data field and ends with its closing brace
+        byte[] head = objectMapper.writeValueAsBytes(ApiResponse.success(null, MESSAGE));
+        byte[] body = new byte[head.length - 1 + DATA_FIELD.length + data.length + 1];
+        System.arraycopy(head, 0, body, 0, head.length - 1);
+        System.arraycopy(DATA_FIELD, 0, body, head.length - 1, DATA_FIELD.length);
+        System.arraycopy(data, 0, body, head.length - 1 + DATA_FIELD.length, data.length);
+        body[body.length - 1] = '}';
+        return body;
+    }
+
+    private static Details await(CompletableFuture<Details> details) {
+        if (details == null) {
+            return null;
+        }
+        try {
+            return details.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    public void evict(UUID quizId) {
+        if (snapshots.remove(quizId) != null) {
+            log.debug("Evicted details snapshot for quiz {}", quizId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuizContentChanged(QuizContentChangedEvent event) {
+        event.quizIds().forEach(this::evict);
+    }
+
+    private Details load(UUID quizId) {
+        Quiz quiz = quizRepository.findByIdAndActiveTrue(quizId)
+                .orElseThrow(() -> new NotFoundException("Quiz not found: " + quizId));
+
+        List<Question> questions = questionRepository.findActiveWithAnswersByQuizId(quizId);
+
+        List<QuizDetailsResponse.QuestionView> views = questions.stream()
+                .map(q -> new QuizDetailsResponse.QuestionView(
+                        q.getId(),
+                        q.getContent(),
+                        q.getType(),
+                        q.getScore(),
+                        q.getAnswers().stream()
+                                .map(a -> new QuizDetailsResponse.AnswerView(a.getId(), a.getContent()))
+                                .toList()
+                ))
+                .toList();
+
+        QuizDetailsResponse details = new QuizDetailsResponse(
+                quiz.getId(),
+                quiz.getTitle(),
+                quiz.getDescription(),
+                quiz.getDurationMinutes(),
+                views.size(),
+                questions.stream().mapToInt(Question::getScore).sum(),
+                views
+        );
+
+        byte[] data = objectMapper.writeValueAsBytes(details);
+        log.debug("Built details snapshot for quiz {} ({} questions, {} bytes)", quizId, views.size(), data.length);
+        return new Details(data, etag(quiz, questions));
+    }
+
+    /**
+     * Digest of the ids and modification times of the quiz, its questions and their answers.
+     * Ids cover questions attached or detached, timestamps cover edits.
+     */
+    private static String etag(Quiz quiz, List<Question> questions) {
+        MessageDigest digest = sha256();
+        ByteBuffer buf = ByteBuffer.allocate(32);
+
+        update(digest, buf, quiz.getId(), quiz);
+        for (Question q : questions) {
+            update(digest, buf, q.getId(), q);
+            for (Answer a : q.getAnswers()) {
+                update(digest, buf, a.getId(), a);
+            }
+        }
+        byte[] hash = digest.digest();
+        return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+    }
+
+    private static void update(MessageDigest digest, ByteBuffer buf, UUID id, BaseEntity entity) {
+        Instant modified = entity.getUpdatedAt() != null ? entity.getUpdatedAt() : entity.getCreatedAt();
+        buf.clear();
+        buf.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+        buf.putLong(modified != null ? modified.getEpochSecond() : 0).putInt(modified != null ? modified.getNano() : 0);
+        digest.update(buf.array(), 0, buf.position());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.test.fr_ks_java_springboot_p_l001.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Outcome of a bulk import: counts and the rows that were rejected")
+public record BulkImportReport(
+
+        @Schema(description = "Rows read", example = "100000")
+        long total,
+
+        @Schema(description = "Rows stored", example = "99997")
+        long imported,
+
+        @Schema(description = "Rows rejected", example = "3")
+        long failed,
+
+        @Schema(description = "Import duration in milliseconds", example = "8421")
+        long elapsedMs,
+
+        @Schema(description = "Rejected rows, at most the first 1000")
+        List<RowError> errors,
+
+        @Schema(description = "Whether more rows failed than are listed in errors", example = "false")
+        boolean errorsTruncated
+) {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Schema(description = "A rejected row")
+    public record RowError(
+
+            @Schema(description = "Line number in the uploaded file (1-based)", example = "42")
+            long line,
+
+            @Schema(description = "Why the row was rejected", example = "score: must be greater than or equal to 1")
+            String error
+    ) {}
+}
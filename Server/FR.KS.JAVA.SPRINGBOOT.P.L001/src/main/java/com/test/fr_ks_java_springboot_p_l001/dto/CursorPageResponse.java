@@ -0,0 +1,40 @@
+package com.test.fr_ks_java_springboot_p_l001.dto;
+
+import com.test.fr_ks_java_springboot_p_l001.pagination.PageCursor;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Schema(description = "Page of a cursor-paginated list, newest first")
+public record CursorPageResponse<T>(
+
+        @Schema(description = "List of items in current page")
+        List<T> content,
+
+        @Schema(description = "Number of items requested per page", example = "20")
+        int pageSize,
+
+        @Schema(description = "Opaque cursor of the next page; absent on the last page",
+                example = "AAAAAGhZ8c0AAAAAEj5FZ-ibEtOkVkJmFBdAAA")
+        String nextCursor,
+
+        @Schema(description = "Whether another page follows", example = "true")
+        boolean hasNext
+) {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Builds a page from up to {@code pageSize + 1} rows: the extra row only tells that a next page exists.
+     *
+     * @param key cursor of a row, taken from the last row of the page
+     */
+    public static <E, T> CursorPageResponse<T> of(List<E> rows, int pageSize, Function<E, PageCursor> key,
+                                                  Function<E, T> mapper) {
+        boolean hasNext = rows.size() > pageSize;
+        List<E> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String next = hasNext ? key.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPageResponse<>(page.stream().map(mapper).toList(), pageSize, next, hasNext);
+    }
+}
@@ -3,9 +3,14 @@ package com.test.fr_ks_java_springboot_p_l001.dto.answer;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 
+import java.util.UUID;
+
 @Schema(description = "Answer creation/update request payload")
 public record answerRequest(
 
+        @Schema(description = "ID of the saved answer being updated, omitted for a new answer")
+        UUID id,
+
         @Schema(description = "Answer content/text", example = "public static void main(String[] args)")
         @NotBlank(message = "{validation.answer.content.notblank}")
         String content,
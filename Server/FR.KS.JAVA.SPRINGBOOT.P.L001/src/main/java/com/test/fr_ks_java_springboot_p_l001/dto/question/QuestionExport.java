@@ -0,0 +1,31 @@
+package com.test.fr_ks_java_springboot_p_l001.dto.question;
+
+import com.test.fr_ks_java_springboot_p_l001.dto.answer.answerResponse;
+import com.test.fr_ks_java_springboot_p_l001.entity.QuestionType;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One line of a quiz export. The fields are a superset of {@link questionRequest},
+ * so an export can be fed back to the question import as is.
+ */
+@Schema(description = "Exported question with its answers, one per NDJSON line")
+public record QuestionExport(
+
+        @Schema(description = "Question ID")
+        UUID id,
+
+        @Schema(description = "Question content/text", example = "What is Java?")
+        String content,
+
+        @Schema(description = "Question type", example = "SINGLE_CHOICE")
+        QuestionType type,
+
+        @Schema(description = "Points for correct answer", example = "10")
+        Integer score,
+
+        @Schema(description = "Answer choices in creation order")
+        List<answerResponse> answers
+) {}
@@ -0,0 +1,62 @@
+package com.test.fr_ks_java_springboot_p_l001.dto.quiz;
+
+import com.test.fr_ks_java_springboot_p_l001.entity.QuestionType;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "Quiz with its questions and answer options, without correctness flags")
+public record QuizDetailsResponse(
+
+        @Schema(description = "Quiz ID")
+        UUID id,
+
+        @Schema(description = "Quiz title", example = "Java Programming Basics")
+        String title,
+
+        @Schema(description = "Quiz description", example = "Test your knowledge of Java fundamentals")
+        String description,
+
+        @Schema(description = "Quiz duration in minutes", example = "60")
+        Integer durationMinutes,
+
+        @Schema(description = "Total number of questions in this quiz", example = "10")
+        Integer totalQuestions,
+
+        @Schema(description = "Maximum achievable score", example = "100")
+        Integer totalScore,
+
+        @Schema(description = "Questions of the quiz")
+        List<QuestionView> questions
+) {
+
+    @Schema(description = "Question as shown to a student")
+    public record QuestionView(
+
+            @Schema(description = "Question ID")
+            UUID id,
+
+            @Schema(description = "Question content", example = "What is the size of int in Java?")
+            String content,
+
+            @Schema(description = "Question type", example = "SINGLE_CHOICE")
+            QuestionType type,
+
+            @Schema(description = "Score of the question", example = "10")
+            Integer score,
+
+            @Schema(description = "Answer options")
+            List<AnswerView> answers
+    ) {}
+
+    @Schema(description = "Answer option as shown to a student")
+    public record AnswerView(
+
+            @Schema(description = "Answer ID")
+            UUID id,
+
+            @Schema(description = "Answer content", example = "4 bytes")
+            String content
+    ) {}
+}
@@ -0,0 +1,21 @@
+package com.test.fr_ks_java_springboot_p_l001.dto.quiz;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(description = "Outcome of attaching or detaching questions")
+public record QuizQuestionsResponse(
+
+        @Schema(description = "Quiz ID")
+        UUID quizId,
+
+        @Schema(description = "Distinct question IDs in the request", example = "50")
+        int requested,
+
+        @Schema(description = "Links created or removed by this request", example = "48")
+        int changed,
+
+        @Schema(description = "Questions already in the requested state (attached, or not attached)", example = "2")
+        int unchanged
+) {}
@@ -23,6 +23,10 @@ public record QuizRequest(
         @Min(value = 1, message = "{validation.quiz.duration.min}")
         Integer durationMinutes,
 
+        @Schema(description = "Questions drawn at random for each attempt, all questions when omitted", example = "20", minimum = "1")
+        @Min(value = 1, message = "Questions per attempt must be at least 1")
+        Integer questionsPerAttempt,
+
         @Schema(description = "Whether the quiz is active/available", example = "true", defaultValue = "false")
         Boolean active
 ) {}
@@ -21,6 +21,9 @@ public record QuizResponse(
         @Schema(description = "Quiz duration in minutes", example = "60")
         Integer durationMinutes,
 
+        @Schema(description = "Questions drawn at random for each attempt, null when all questions are used", example = "20")
+        Integer questionsPerAttempt,
+
         @Schema(description = "Whether the quiz is active", example = "true")
         Boolean active,
 
@@ -0,0 +1,20 @@
+package com.test.fr_ks_java_springboot_p_l001.dto.quiz;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Catalogue row of a quiz, read by a JPQL constructor expression:
+ * the question count is computed by the database, questions are never loaded.
+ */
+public record QuizSummary(
+        UUID id,
+        String title,
+        String description,
+        Integer durationMinutes,
+        Integer questionsPerAttempt,
+        Boolean active,
+        Integer questionCount,
+        Instant createdAt,
+        Instant updatedAt
+) {}
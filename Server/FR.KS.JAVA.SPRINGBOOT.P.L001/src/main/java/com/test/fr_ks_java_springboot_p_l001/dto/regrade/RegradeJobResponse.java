@@ -0,0 +1,46 @@
+package com.test.fr_ks_java_springboot_p_l001.dto.regrade;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.test.fr_ks_java_springboot_p_l001.entity.RegradeStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Schema(description = "Progress of a regrade job")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RegradeJobResponse(
+
+        @Schema(description = "Job ID")
+        UUID id,
+
+        @Schema(description = "Quiz whose submissions are regraded")
+        UUID quizId,
+
+        @Schema(description = "Job status", example = "RUNNING")
+        RegradeStatus status,
+
+        @Schema(description = "Submissions to regrade, counted when the job started", example = "120000")
+        long total,
+
+        @Schema(description = "Submissions processed so far", example = "45000")
+        long processed,
+
+        @Schema(description = "Submissions whose score changed", example = "3120")
+        long changed,
+
+        @Schema(description = "Submissions left as is because they no longer match the quiz", example = "0")
+        long skipped,
+
+        @Schema(description = "Progress in percent", example = "37.5")
+        double percent,
+
+        @Schema(description = "When the job started running")
+        Instant startedAt,
+
+        @Schema(description = "When the job finished")
+        Instant finishedAt,
+
+        @Schema(description = "Failure reason")
+        String error
+) {}
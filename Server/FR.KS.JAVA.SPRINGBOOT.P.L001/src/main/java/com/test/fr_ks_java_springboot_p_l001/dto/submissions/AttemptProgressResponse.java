@@ -0,0 +1,25 @@
+package com.test.fr_ks_java_springboot_p_l001.dto.submissions;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Schema(description = "Progress of a running attempt after an autosave")
+public record AttemptProgressResponse(
+
+        @Schema(description = "Attempt ID")
+        UUID attemptId,
+
+        @Schema(description = "Question that was saved")
+        UUID questionId,
+
+        @Schema(description = "Number of answered questions", example = "7")
+        Integer answeredQuestions,
+
+        @Schema(description = "Total number of questions in quiz", example = "10")
+        Integer totalQuestions,
+
+        @Schema(description = "Submissions after this instant are rejected")
+        Instant deadline
+) {}
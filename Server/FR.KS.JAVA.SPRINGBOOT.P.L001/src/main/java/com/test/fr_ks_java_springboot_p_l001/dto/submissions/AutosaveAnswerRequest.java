@@ -0,0 +1,16 @@
+package com.test.fr_ks_java_springboot_p_l001.dto.submissions;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "Autosaved answer of one question in a running attempt")
+public record AutosaveAnswerRequest(
+
+        @Schema(description = "Selected answer IDs, replacing the previous selection. Empty clears the answer",
+                example = "[\"222e4567-e89b-12d3-a456-426614174333\"]")
+        @NotNull(message = "Answer IDs are required")
+        List<UUID> answerIds
+) {}
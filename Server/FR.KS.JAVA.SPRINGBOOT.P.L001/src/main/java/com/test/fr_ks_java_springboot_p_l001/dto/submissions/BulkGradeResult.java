@@ -0,0 +1,40 @@
+package com.test.fr_ks_java_springboot_p_l001.dto.submissions;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(description = "Result of one answer sheet in a bulk grading stream (one NDJSON line)")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkGradeResult(
+
+        @Schema(description = "1-based line number of the sheet in the uploaded stream", example = "42")
+        long line,
+
+        @Schema(description = "Created submission ID (absent on error)")
+        UUID submissionId,
+
+        @Schema(description = "User ID of the sheet")
+        UUID userId,
+
+        @Schema(description = "Number of correctly answered questions", example = "7")
+        Integer correctAnswers,
+
+        @Schema(description = "Score achieved", example = "70.0")
+        Double achievedScore,
+
+        @Schema(description = "Percentage score (0-100)", example = "70.0")
+        Double percentage,
+
+        @Schema(description = "Pass/fail status (threshold: 50%)", example = "true")
+        Boolean passed,
+
+        @Schema(description = "Why the sheet was rejected (absent on success)", example = "User not found")
+        String error
+) {
+
+    public static BulkGradeResult failed(long line, UUID userId, String error) {
+        return new BulkGradeResult(line, null, userId, null, null, null, null, error);
+    }
+}
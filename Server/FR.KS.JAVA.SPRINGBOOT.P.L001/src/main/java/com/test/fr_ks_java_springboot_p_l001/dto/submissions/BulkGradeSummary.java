@@ -0,0 +1,27 @@
+package com.test.fr_ks_java_springboot_p_l001.dto.submissions;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(description = "Last NDJSON line of a bulk grading stream")
+public record BulkGradeSummary(
+
+        @Schema(description = "Quiz ID")
+        UUID quizId,
+
+        @Schema(description = "Number of sheets read", example = "50000")
+        long total,
+
+        @Schema(description = "Number of sheets graded and saved", example = "49990")
+        long graded,
+
+        @Schema(description = "Number of rejected sheets", example = "10")
+        long failed,
+
+        @Schema(description = "Wall-clock duration in milliseconds", example = "8200")
+        long elapsedMs,
+
+        @Schema(description = "Throughput in sheets per second", example = "6097.5")
+        double sheetsPerSecond
+) {}
@@ -0,0 +1,36 @@
+package com.test.fr_ks_java_springboot_p_l001.dto.submissions;
+
+import com.test.fr_ks_java_springboot_p_l001.entity.AttemptStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "A started exam attempt and its deadline")
+public record ExamAttemptResponse(
+
+        @Schema(description = "Attempt ID, to be sent back with the submission")
+        UUID attemptId,
+
+        @Schema(description = "User ID taking the exam")
+        UUID userId,
+
+        @Schema(description = "Quiz ID")
+        UUID quizId,
+
+        @Schema(description = "Attempt status", example = "ACTIVE")
+        AttemptStatus status,
+
+        @Schema(description = "When the attempt was started")
+        Instant startedAt,
+
+        @Schema(description = "Submissions after this instant are rejected")
+        Instant deadline,
+
+        @Schema(description = "Quiz duration in minutes", example = "30")
+        Integer durationMinutes,
+
+        @Schema(description = "Questions of this attempt in display order; a sample of the quiz when it sets questionsPerAttempt")
+        List<UUID> questionIds
+) {}
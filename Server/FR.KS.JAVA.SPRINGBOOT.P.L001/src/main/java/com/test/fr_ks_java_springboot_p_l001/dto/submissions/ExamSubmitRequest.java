@@ -22,7 +22,12 @@ public record ExamSubmitRequest(
         @Schema(description = "List of question-answer pairs (at least 1 answer required)")
         @NotEmpty(message = "Answers cannot be empty")
         @Valid
-        List<QuestionAnswerDTO> answers
+        List<QuestionAnswerDTO> answers,
+
+        @Schema(description = "Attempt ID returned by the start endpoint. Required when exam.attempt.required=true; "
+                + "when omitted, the user's running attempt for the quiz is used",
+                example = "456e4567-e89b-12d3-a456-426614174999")
+        UUID attemptId
 ) {
 
     @Schema(description = "Question-answer pair containing question ID and selected answer IDs")
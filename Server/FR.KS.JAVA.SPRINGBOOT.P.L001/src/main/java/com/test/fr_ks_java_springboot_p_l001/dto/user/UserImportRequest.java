@@ -0,0 +1,30 @@
+package com.test.fr_ks_java_springboot_p_l001.dto.user;
+
+import com.test.fr_ks_java_springboot_p_l001.entity.RoleEnum;
+import com.test.fr_ks_java_springboot_p_l001.validation.StrongPassword;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import java.util.Set;
+
+@Schema(description = "One user of a bulk import")
+public record UserImportRequest(
+
+        @Schema(description = "User email address (unique)", example = "sv001@example.com")
+        @NotBlank(message = "{validation.email.notblank}")
+        @Email(message = "{validation.email.invalid}")
+        String email,
+
+        @Schema(description = "User password (min 8 characters)", example = "SecureP@ss123", minLength = 8)
+        @NotBlank(message = "{validation.password.notblank}")
+        @Size(min = 8, message = "{validation.password.size}")
+        @StrongPassword
+        String password,
+
+        @Schema(description = "User full name", example = "Nguyen Van A", maxLength = 100)
+        @NotBlank(message = "{validation.fullname.notblank}")
+        @Size(max = 100, message = "{validation.fullname.size}")
+        String fullName,
+
+        @Schema(description = "Roles to assign, ROLE_USER if empty", example = "[\"ROLE_USER\"]")
+        Set<RoleEnum> roles
+) {}
@@ -0,0 +1,5 @@
+package com.test.fr_ks_java_springboot_p_l001.entity;
+
+public enum AttemptStatus {
+    ACTIVE, SUBMITTED, EXPIRED
+}
@@ -0,0 +1,66 @@
+package com.test.fr_ks_java_springboot_p_l001.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Saved state of an exam attempt. Written in batches by {@code ExamAttemptBatchRepository},
+ * the live state is held by {@code AttemptRegistry}.
+ */
+@Entity
+@Table(name = "exam_attempts", indexes = @Index(name = "idx_exam_attempts_status", columnList = "status"))
+@Getter
+@Setter
+public class ExamAttempt extends BaseEntity {
+
+    // assigned in memory when the attempt starts
+    @Id
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "quiz_id", nullable = false)
+    private Quiz quiz;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AttemptStatus status;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(nullable = false)
+    private Instant deadline;
+
+    @Column(name = "duration_minutes", nullable = false)
+    private Integer durationMinutes;
+
+    @Column(nullable = false)
+    private Double score;
+
+    @Column(name = "answered_count", nullable = false)
+    private Integer answeredCount;
+
+    /**
+     * Answers saved so far, encoded with {@code ResultCodec}.
+     */
+    @Column(name = "results")
+    private byte[] results;
+
+    // seed and size of the question sample, null when the attempt has the whole quiz
+    @Column(name = "question_seed")
+    private Long questionSeed;
+
+    @Column(name = "question_count")
+    private Integer questionCount;
+
+    // bumped on every change, stale batch writes are ignored
+    @Column(nullable = false)
+    private Long revision;
+}
@@ -4,13 +4,16 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "questions")
+@Table(name = "questions", indexes = @Index(name = "idx_questions_active_created_at_id", columnList = "is_active, created_at, id"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter @Setter
 public class Question extends BaseEntity {
 
@@ -29,9 +32,13 @@ public class Question extends BaseEntity {
     @Column(nullable = false)
     private Integer score;
 
+    // thứ tự ổn định: vị trí đáp án được lưu trong quiz_submissions.results
     @OneToMany(mappedBy = "question", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("createdAt ASC, id ASC")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Answer> answers = new ArrayList<>();
 
     @ManyToMany(mappedBy = "questions")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Quiz> quiz = new ArrayList<>();
 }
@@ -3,13 +3,16 @@ package com.test.fr_ks_java_springboot_p_l001.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "quizzes")
+@Table(name = "quizzes", indexes = @Index(name = "idx_quizzes_active_created_at_id", columnList = "is_active, created_at, id"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 public class Quiz extends BaseEntity {
@@ -27,7 +30,14 @@ public class Quiz extends BaseEntity {
     @Column(name = "duration_minutes", nullable = false)
     private Integer durationMinutes;
 
+    // questions drawn at random for each attempt, null = every attempt gets all questions
+    @Min(1)
+    @Column(name = "questions_per_attempt")
+    private Integer questionsPerAttempt;
+
+    // quiz_questions has a unique (quiz_id, question_id) index, created by SchemaInitializer
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(name = "quiz_questions", joinColumns = @JoinColumn(name = "quiz_id"), inverseJoinColumns = @JoinColumn(name = "question_id"))
     private List<Question> questions = new ArrayList<>();
 }
\ No newline at end of file
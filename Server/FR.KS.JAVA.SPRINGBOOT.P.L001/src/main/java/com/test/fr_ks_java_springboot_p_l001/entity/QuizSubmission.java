@@ -6,7 +6,10 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "quiz_submissions")
+@Table(name = "quiz_submissions", uniqueConstraints = @UniqueConstraint(
+        name = "uk_quiz_submissions_user_idempotency_key", columnNames = {"user_id", "idempotency_key"}),
+        // keyset scan of a quiz's submissions by regrade jobs
+        indexes = @Index(name = "idx_quiz_submissions_quiz_id_id", columnList = "quiz_id, id"))
 @Getter
 @Setter
 public class QuizSubmission extends  BaseEntity {
@@ -17,6 +20,33 @@ public class QuizSubmission extends  BaseEntity {
     @Column(nullable = false)
     private Double score;
 
+    @Column(name = "total_score")
+    private Double totalScore;
+
+    @Column(name = "passed")
+    private Boolean passed;
+
+    /**
+     * Per-question outcome encoded with {@code ResultCodec} (selected answer ordinals + correctness).
+     */
+    @Column(name = "results")
+    private byte[] results;
+
+    // Idempotency-Key header of the submit request, null when the client sent none
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    // hash of the request that used the key, a retry with another body is refused
+    @Column(name = "request_hash")
+    private Long requestHash;
+
+    // seed and size of the question sample the attempt got, null when it had the whole quiz
+    @Column(name = "question_seed")
+    private Long questionSeed;
+
+    @Column(name = "question_count")
+    private Integer questionCount;
+
     @Column(name = "submission_time", nullable = false)
     private LocalDateTime submissionTime;
 
@@ -0,0 +1,55 @@
+package com.test.fr_ks_java_springboot_p_l001.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Regrade of a quiz's stored submissions after its answer key changed.
+ * The cursor is the last submission id processed, so a job resumes where it stopped.
+ */
+@Entity
+@Table(name = "regrade_jobs", indexes = @Index(name = "idx_regrade_jobs_quiz_id", columnList = "quiz_id"))
+@Getter
+@Setter
+public class RegradeJob extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "quiz_id", nullable = false)
+    private UUID quizId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RegradeStatus status = RegradeStatus.PENDING;
+
+    @Column(name = "last_submission_id")
+    private UUID lastSubmissionId;
+
+    @Column(name = "total_count", nullable = false)
+    private Long totalCount = 0L;
+
+    @Column(name = "processed_count", nullable = false)
+    private Long processedCount = 0L;
+
+    // submissions whose score or correctness changed
+    @Column(name = "changed_count", nullable = false)
+    private Long changedCount = 0L;
+
+    // submissions that no longer fit the quiz (questions added or removed)
+    @Column(name = "skipped_count", nullable = false)
+    private Long skippedCount = 0L;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(length = 500)
+    private String error;
+}
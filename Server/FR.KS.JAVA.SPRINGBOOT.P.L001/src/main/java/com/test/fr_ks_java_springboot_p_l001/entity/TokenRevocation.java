@@ -0,0 +1,30 @@
+package com.test.fr_ks_java_springboot_p_l001.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Access tokens of the user issued at or before {@code notBefore} are refused.
+ * One row per user, moved forward on every revocation; a row older than the access token
+ * lifetime no longer matches any live token and is deleted.
+ */
+@Entity
+@Table(name = "token_revocations",
+        indexes = {
+                @Index(name = "idx_token_revocations_updated_at", columnList = "updated_at"),
+                @Index(name = "idx_token_revocations_not_before", columnList = "not_before")
+        })
+@Getter
+@Setter
+public class TokenRevocation extends BaseEntity {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "not_before", nullable = false)
+    private Instant notBefore;
+}
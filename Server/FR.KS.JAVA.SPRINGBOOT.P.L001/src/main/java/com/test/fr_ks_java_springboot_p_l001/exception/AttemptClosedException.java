@@ -0,0 +1,8 @@
+package com.test.fr_ks_java_springboot_p_l001.exception;
+
+/**
+ * The exam attempt has already been submitted or its time is up.
+ */
+public class AttemptClosedException extends RuntimeException {
+    public AttemptClosedException(String message) { super(message); }
+}
@@ -0,0 +1,8 @@
+package com.test.fr_ks_java_springboot_p_l001.exception;
+
+/**
+ * The request is malformed in a way bean validation cannot express (e.g. an unreadable cursor).
+ */
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) { super(message); }
+}
@@ -0,0 +1,9 @@
+package com.test.fr_ks_java_springboot_p_l001.exception;
+
+/**
+ * The request does not fit the current state of the resource, e.g. a submission graded against
+ * questions that have since changed.
+ */
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) { super(message); }
+}
@@ -0,0 +1,16 @@
+package com.test.fr_ks_java_springboot_p_l001.exception;
+
+/**
+ * The server is shedding load; the client should retry after {@link #getRetryAfterSeconds()}.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
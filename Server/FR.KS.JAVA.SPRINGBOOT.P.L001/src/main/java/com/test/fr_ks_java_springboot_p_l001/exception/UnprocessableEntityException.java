@@ -0,0 +1,9 @@
+package com.test.fr_ks_java_springboot_p_l001.exception;
+
+/**
+ * The request is well-formed but cannot be processed as sent, e.g. an Idempotency-Key reused
+ * with a different body.
+ */
+public class UnprocessableEntityException extends RuntimeException {
+    public UnprocessableEntityException(String message) { super(message); }
+}
@@ -0,0 +1,299 @@
+package com.test.fr_ks_java_springboot_p_l001.grading;
+
+import com.test.fr_ks_java_springboot_p_l001.entity.Answer;
+import com.test.fr_ks_java_springboot_p_l001.entity.Question;
+import com.test.fr_ks_java_springboot_p_l001.entity.QuestionType;
+import com.test.fr_ks_java_springboot_p_l001.entity.Quiz;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable, precompiled grading data for one quiz.
+ * Built once from the database and shared by every submission of the quiz.
+ * <p>
+ * Every answer of the quiz is mapped to a dense bit position. The answers of a question
+ * start on a 64-bit word boundary, so a question with up to 64 answers lives in exactly one word
+ * and its correctness is a single word compare (see {@link BitsetGrader}).
+ * <p>
+ * The questions, ordered by id, are also the quiz's question pool: when the quiz sets
+ * {@code questionsPerAttempt}, each attempt is graded against a {@link #sample} of the pool
+ * that is rebuilt from the attempt's seed.
+ */
+public final class AnswerKey {
+
+    /**
+     * Answers are ordered by creation then id so positions are stable between rebuilds.
+     */
+    static final Comparator<Answer> ANSWER_ORDER = Comparator
+            .comparing(Answer::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Answer::getId);
+
+    public record QuestionKey(
+            UUID id,
+            String content,
+            int score,
+            QuestionType type,
+            List<UUID> answerIds,
+            List<UUID> correctIds,
+            Set<UUID> correctIdSet,
+            int firstWord,
+            int wordCount
+    ) {
+        /**
+         * Bit position of the answer at {@code ordinal} in {@link #answerIds()}.
+         */
+        public int position(int ordinal) {
+            return (firstWord << 6) + ordinal;
+        }
+    }
+
+    private final UUID quizId;
+    private final String quizTitle;
+    private final List<QuestionKey> questions;
+    private final double totalScore;
+    private final Map<UUID, Integer> questionIndex;
+    private final Map<UUID, Integer> answerPositions;
+    private final long[] correctMask;
+    private final Integer questionsPerAttempt;
+    private final Long sampleSeed;
+    private final long fingerprint;
+
+    private AnswerKey(UUID quizId, String quizTitle, List<QuestionKey> questions, double totalScore,
+                      Map<UUID, Integer> questionIndex, Map<UUID, Integer> answerPositions, long[] correctMask,
+                      Integer questionsPerAttempt, Long sampleSeed) {
+        this.quizId = quizId;
+        this.quizTitle = quizTitle;
+        this.questions = questions;
+        this.totalScore = totalScore;
+        this.questionIndex = questionIndex;
+        this.answerPositions = answerPositions;
+        this.correctMask = correctMask;
+        this.questionsPerAttempt = questionsPerAttempt;
+        this.sampleSeed = sampleSeed;
+        this.fingerprint = fingerprint(questions);
+    }
+
+    // murmur3 finalizer over the question ids in order: any add, removal or reordering changes it
+    private static long fingerprint(List<QuestionKey> questions) {
+        long h = questions.size();
+        for (QuestionKey q : questions) {
+            h = mix(h ^ q.id().getMostSignificantBits());
+            h = mix(h ^ q.id().getLeastSignificantBits());
+        }
+        return h;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Builds the key from a quiz and its (already fetched) active questions with answers.
+     */
+    public static AnswerKey of(Quiz quiz, List<Question> questions) {
+        double total = 0;
+        int word = 0;
+        List<QuestionKey> keys = new ArrayList<>(questions.size());
+        Map<UUID, Integer> questionIndex = new HashMap<>();
+        Map<UUID, Integer> answerPositions = new HashMap<>();
+        List<long[]> correctWords = new ArrayList<>();
+
+        for (Question q : questions) {
+            if (questionIndex.containsKey(q.getId())) {
+                continue;
+            }
+
+            List<Answer> answers = q.getAnswers().stream()
+                    .sorted(ANSWER_ORDER)
+                    .toList();
+
+            int wordCount = (answers.size() + 63) >>> 6;
+            long[] correct = new long[wordCount];
+            List<UUID> answerIds = new ArrayList<>(answers.size());
+            List<UUID> correctIds = new ArrayList<>();
+
+            for (int i = 0; i < answers.size(); i++) {
+                Answer a = answers.get(i);
+                answerIds.add(a.getId());
+                answerPositions.put(a.getId(), (word << 6) + i);
+                if (Boolean.TRUE.equals(a.getIsCorrect())) {
+                    correct[i >>> 6] |= 1L << i;
+                    correctIds.add(a.getId());
+                }
+            }
+
+            questionIndex.put(q.getId(), keys.size());
+            keys.add(new QuestionKey(
+                    q.getId(),
+                    q.getContent(),
+                    q.getScore(),
+                    q.getType(),
+                    List.copyOf(answerIds),
+                    List.copyOf(correctIds),
+                    Set.copyOf(correctIds),
+                    word,
+                    wordCount
+            ));
+            correctWords.add(correct);
+            word += wordCount;
+            total += q.getScore();
+        }
+
+        long[] correctMask = new long[word];
+        int offset = 0;
+        for (long[] words : correctWords) {
+            System.arraycopy(words, 0, correctMask, offset, words.length);
+            offset += words.length;
+        }
+
+        return new AnswerKey(quiz.getId(), quiz.getTitle(), List.copyOf(keys), total,
+                Map.copyOf(questionIndex), Map.copyOf(answerPositions), correctMask,
+                quiz.getQuestionsPerAttempt(), null);
+    }
+
+    /**
+     * Key of an attempt that gets {@code count} questions of this pool, drawn by {@link QuestionSampler}.
+     * The questions keep the draw order, so the same seed rebuilds the same key while the pool is unchanged.
+     *
+     * @throws IllegalStateException if the pool has fewer than {@code count} questions
+     */
+    public AnswerKey sample(long seed, int count) {
+        if (sampleSeed != null) {
+            throw new IllegalStateException("Answer key is already a sample");
+        }
+        if (count > questions.size()) {
+            throw new IllegalStateException("Quiz has " + questions.size() + " questions, " + count + " expected");
+        }
+
+        int[] picked = QuestionSampler.pick(questions.size(), count, seed);
+        int words = 0;
+        for (int qi : picked) {
+            words += questions.get(qi).wordCount();
+        }
+
+        // same layout as of(): each question starts on its own word, the correct words are copied over
+        long[] mask = new long[words];
+        List<QuestionKey> keys = new ArrayList<>(count);
+        Map<UUID, Integer> index = new HashMap<>();
+        Map<UUID, Integer> positions = new HashMap<>();
+        double total = 0;
+        int word = 0;
+
+        for (int qi : picked) {
+            QuestionKey q = questions.get(qi);
+            System.arraycopy(correctMask, q.firstWord(), mask, word, q.wordCount());
+            for (int i = 0; i < q.answerIds().size(); i++) {
+                positions.put(q.answerIds().get(i), (word << 6) + i);
+            }
+            index.put(q.id(), keys.size());
+            keys.add(new QuestionKey(q.id(), q.content(), q.score(), q.type(), q.answerIds(), q.correctIds(),
+                    q.correctIdSet(), word, q.wordCount()));
+            word += q.wordCount();
+            total += q.score();
+        }
+
+        return new AnswerKey(quizId, quizTitle, List.copyOf(keys), total,
+                Map.copyOf(index), Map.copyOf(positions), mask, questionsPerAttempt, seed);
+    }
+
+    public UUID quizId() {
+        return quizId;
+    }
+
+    public String quizTitle() {
+        return quizTitle;
+    }
+
+    public List<QuestionKey> questions() {
+        return questions;
+    }
+
+    public double totalScore() {
+        return totalScore;
+    }
+
+    /**
+     * Hash of the question ids in {@link #questions()} order. Stored in every {@link ResultCodec} blob,
+     * whose per-question entries are positional, so a blob is never read against other questions.
+     */
+    public long fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Questions drawn per attempt, or null when every attempt gets the whole quiz.
+     */
+    public Integer questionsPerAttempt() {
+        return questionsPerAttempt;
+    }
+
+    /**
+     * Seed this key was drawn with, null for the full quiz.
+     */
+    public Long sampleSeed() {
+        return sampleSeed;
+    }
+
+    /**
+     * Whether each attempt gets its own sample, i.e. the quiz draws fewer questions than it has.
+     */
+    public boolean drawsPerAttempt() {
+        return questionsPerAttempt != null && questionsPerAttempt < questions.size();
+    }
+
+    /**
+     * Key for a new attempt: a fresh sample when {@link #drawsPerAttempt()}, otherwise this key.
+     */
+    public AnswerKey forAttempt(long seed) {
+        return drawsPerAttempt() ? sample(seed, questionsPerAttempt) : this;
+    }
+
+    /**
+     * Key a stored attempt or submission was graded against, from its saved seed and question count.
+     * The draw is only reproducible while the pool is unchanged: compare {@link #fingerprint()} with
+     * the one stored in the results before using it ({@link ResultCodec#decode} does).
+     *
+     * @throws IllegalStateException if the pool can no longer provide the sample
+     */
+    public AnswerKey forSample(Long seed, Integer count) {
+        return seed != null ? sample(seed, count) : this;
+    }
+
+    /**
+     * Index of the question in {@link #questions()}, or -1 if it does not belong to this quiz.
+     */
+    public int questionIndex(UUID questionId) {
+        Integer idx = questionIndex.get(questionId);
+        return idx != null ? idx : -1;
+    }
+
+    /**
+     * Bit position of the answer, or -1 if it does not belong to this quiz.
+     */
+    public int answerPosition(UUID answerId) {
+        Integer pos = answerPositions.get(answerId);
+        return pos != null ? pos : -1;
+    }
+
+    /**
+     * Number of 64-bit words needed to hold a selection over every answer of the quiz.
+     */
+    public int answerWords() {
+        return correctMask.length;
+    }
+
+    long correctWord(int word) {
+        return correctMask[word];
+    }
+}
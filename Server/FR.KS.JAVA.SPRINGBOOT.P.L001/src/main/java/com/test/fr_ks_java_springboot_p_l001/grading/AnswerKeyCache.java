@@ -0,0 +1,109 @@
+package com.test.fr_ks_java_springboot_p_l001.grading;
+
+import com.test.fr_ks_java_springboot_p_l001.entity.Question;
+import com.test.fr_ks_java_springboot_p_l001.entity.Quiz;
+import com.test.fr_ks_java_springboot_p_l001.exception.NotFoundException;
+import com.test.fr_ks_java_springboot_p_l001.repository.QuizRepository;
+import com.test.fr_ks_java_springboot_p_l001.repository.questionRepository;
+import com.test.fr_ks_java_springboot_p_l001.service.QuizContentChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory cache of {@link AnswerKey} per quiz.
+ * Keys are built lazily on first use and evicted after any committed change to the quiz content.
+ * <p>
+ * A load runs outside the map, as in the quiz details cache: the first reader of a quiz registers
+ * a future and builds the key, so a submission spike builds it once while other quizzes are not held up.
+ */
+@Slf4j
+@Component
+public class AnswerKeyCache {
+
+    private final QuizRepository quizRepository;
+    private final questionRepository questionRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Map<UUID, CompletableFuture<AnswerKey>> keys = new ConcurrentHashMap<>();
+
+    public AnswerKeyCache(
+            QuizRepository quizRepository,
+            questionRepository questionRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.quizRepository = quizRepository;
+        this.questionRepository = questionRepository;
+        // a cache hit must not open a transaction (and borrow a connection), only a load does
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public AnswerKey get(UUID quizId) {
+        AnswerKey key = await(keys.get(quizId));
+        return key != null ? key : build(quizId);
+    }
+
+    private AnswerKey build(UUID quizId) {
+        CompletableFuture<AnswerKey> mine = new CompletableFuture<>();
+        CompletableFuture<AnswerKey> running = keys.putIfAbsent(quizId, mine);
+        if (running != null) {
+            return await(running);
+        }
+        // an eviction during the build removes this future, so a stale key is never kept
+        try {
+            AnswerKey key = readOnlyTransaction.execute(s -> load(quizId));
+            mine.complete(key);
+            return key;
+        } catch (RuntimeException ex) {
+            // not cached: the next read tries again
+            keys.remove(quizId, mine);
+            mine.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private static AnswerKey await(CompletableFuture<AnswerKey> key) {
+        if (key == null) {
+            return null;
+        }
+        try {
+            return key.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    public void evict(UUID quizId) {
+        if (keys.remove(quizId) != null) {
+            log.debug("Evicted answer key for quiz {}", quizId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuizContentChanged(QuizContentChangedEvent event) {
+        event.quizIds().forEach(this::evict);
+    }
+
+    private AnswerKey load(UUID quizId) {
+        Quiz quiz = quizRepository.findById(quizId)
+                .orElseThrow(() -> new NotFoundException("Quiz not found: " + quizId));
+
+        List<Question> questions = questionRepository.findActiveWithAnswersByQuizId(quizId);
+
+        log.debug("Built answer key for quiz {} ({} questions)", quizId, questions.size());
+        return AnswerKey.of(quiz, questions);
+    }
+}
@@ -0,0 +1,120 @@
+package com.test.fr_ks_java_springboot_p_l001.grading;
+
+import com.test.fr_ks_java_springboot_p_l001.dto.submissions.ExamSubmitRequest;
+import com.test.fr_ks_java_springboot_p_l001.entity.QuestionType;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Grades submissions against an {@link AnswerKey} using {@code long[]} bitmasks.
+ * <p>
+ * Submitted answers are folded into one selection bitmask over the quiz's answer positions,
+ * then every question is checked by comparing its words with the key:
+ * <ul>
+ *     <li>SINGLE_CHOICE: exactly one answer submitted and its bit is set in the correct mask</li>
+ *     <li>MULTIPLE_CHOICE: the selected words equal the correct words (no missing, no extra)</li>
+ * </ul>
+ * An answer id that does not belong to the question always makes the question wrong.
+ * Grading allocates a fixed number of arrays per submission and nothing per question.
+ */
+public final class BitsetGrader {
+
+    private BitsetGrader() {
+    }
+
+    public static GradeResult grade(AnswerKey key, List<ExamSubmitRequest.QuestionAnswerDTO> answers) {
+        List<AnswerKey.QuestionKey> questions = key.questions();
+        int n = questions.size();
+
+        long[] selected = new long[key.answerWords()];
+        long[] invalid = new long[(n + 63) >>> 6];
+        ExamSubmitRequest.QuestionAnswerDTO[] byQuestion = new ExamSubmitRequest.QuestionAnswerDTO[n];
+
+        // ================= 1. Fold submitted answers into the selection mask =================
+        for (ExamSubmitRequest.QuestionAnswerDTO dto : answers) {
+            int qi = key.questionIndex(dto.questionId());
+            if (qi < 0) {
+                continue;
+            }
+            if (byQuestion[qi] != null) {
+                throw new IllegalArgumentException("Duplicate answers for question: " + dto.questionId());
+            }
+            byQuestion[qi] = dto;
+
+            AnswerKey.QuestionKey q = questions.get(qi);
+            if (!select(key, q, dto.answerIds(), selected)) {
+                invalid[qi >>> 6] |= 1L << qi;
+            }
+        }
+
+        // ================= 2. Compare words per question =================
+        long[] correct = new long[invalid.length];
+        double achievedScore = 0;
+        int correctCount = 0;
+
+        for (int qi = 0; qi < n; qi++) {
+            if ((invalid[qi >>> 6] & (1L << qi)) != 0) {
+                continue;
+            }
+            AnswerKey.QuestionKey q = questions.get(qi);
+            int submittedCount = byQuestion[qi] != null ? byQuestion[qi].answerIds().size() : 0;
+
+            if (isCorrect(key, q, submittedCount, selected)) {
+                correct[qi >>> 6] |= 1L << qi;
+                achievedScore += q.score();
+                correctCount++;
+            }
+        }
+
+        return new GradeResult(achievedScore, correctCount, correct, selected, invalid, byQuestion);
+    }
+
+    /**
+     * Sets the bits of {@code answerIds} in {@code selected}.
+     *
+     * @return false if any answer does not belong to {@code q}
+     */
+    static boolean select(AnswerKey key, AnswerKey.QuestionKey q, List<UUID> answerIds, long[] selected) {
+        int from = q.firstWord() << 6;
+        int to = from + q.answerIds().size();
+        boolean valid = true;
+
+        for (UUID answerId : answerIds) {
+            int pos = key.answerPosition(answerId);
+            if (pos < from || pos >= to) {
+                valid = false;
+            } else {
+                selected[pos >>> 6] |= 1L << pos;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Checks one question whose submitted answers are already folded into {@code selected}.
+     */
+    static boolean isCorrect(AnswerKey key, AnswerKey.QuestionKey q, int submittedCount, long[] selected) {
+        int first = q.firstWord();
+        int last = first + q.wordCount();
+
+        if (q.type() == QuestionType.SINGLE_CHOICE) {
+            if (submittedCount != 1) {
+                return false;
+            }
+            for (int w = first; w < last; w++) {
+                if ((selected[w] & key.correctWord(w)) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        for (int w = first; w < last; w++) {
+            if (selected[w] != key.correctWord(w)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,63 @@
+package com.test.fr_ks_java_springboot_p_l001.grading;
+
+import com.test.fr_ks_java_springboot_p_l001.dto.submissions.ExamSubmitRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of {@link BitsetGrader#grade}. Question indexes refer to {@link AnswerKey#questions()}.
+ */
+public final class GradeResult {
+
+    private final double achievedScore;
+    private final int correctCount;
+    private final long[] correct;
+    private final long[] selected;
+    private final long[] invalid;
+    private final ExamSubmitRequest.QuestionAnswerDTO[] submissions;
+
+    GradeResult(double achievedScore, int correctCount, long[] correct, long[] selected, long[] invalid,
+                ExamSubmitRequest.QuestionAnswerDTO[] submissions) {
+        this.achievedScore = achievedScore;
+        this.correctCount = correctCount;
+        this.correct = correct;
+        this.selected = selected;
+        this.invalid = invalid;
+        this.submissions = submissions;
+    }
+
+    public double achievedScore() {
+        return achievedScore;
+    }
+
+    public int correctCount() {
+        return correctCount;
+    }
+
+    public boolean isCorrect(int questionIndex) {
+        return (correct[questionIndex >>> 6] & (1L << questionIndex)) != 0;
+    }
+
+    /**
+     * Whether an answer id submitted for the question does not belong to it.
+     */
+    public boolean hasForeignAnswer(int questionIndex) {
+        return (invalid[questionIndex >>> 6] & (1L << questionIndex)) != 0;
+    }
+
+    /**
+     * Selection bitmask over the quiz's answer positions (see {@link AnswerKey}).
+     */
+    long[] selected() {
+        return selected;
+    }
+
+    /**
+     * Answer ids submitted for the question, as sent by the client (empty if unanswered).
+     */
+    public List<UUID> submittedIds(int questionIndex) {
+        ExamSubmitRequest.QuestionAnswerDTO dto = submissions[questionIndex];
+        return dto != null ? dto.answerIds() : List.of();
+    }
+}
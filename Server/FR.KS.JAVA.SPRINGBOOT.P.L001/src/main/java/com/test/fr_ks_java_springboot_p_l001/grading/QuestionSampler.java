@@ -0,0 +1,40 @@
+package com.test.fr_ks_java_springboot_p_l001.grading;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded sampling of questions from a quiz's pool.
+ * <p>
+ * A partial Fisher–Yates shuffle over the pool indexes: only the swapped slots are kept in a map,
+ * so picking {@code count} questions costs O(count) whatever the pool size, and the database never
+ * sorts by {@code random()}. The same seed over the same pool gives the same picks in the same order.
+ */
+public final class QuestionSampler {
+
+    private QuestionSampler() {
+    }
+
+    /**
+     * @return {@code count} distinct indexes in [0, poolSize), in draw order
+     */
+    public static int[] pick(int poolSize, int count, long seed) {
+        if (count < 0 || count > poolSize) {
+            throw new IllegalArgumentException("Cannot pick " + count + " of " + poolSize + " questions");
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        // slot -> index currently held there; slots not in the map still hold their own index
+        Map<Integer, Integer> swapped = new HashMap<>(count * 2);
+        int[] picked = new int[count];
+
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(poolSize - i);
+            Integer atJ = swapped.get(j);
+            Integer atI = swapped.get(i);
+            picked[i] = atJ != null ? atJ : j;
+            swapped.put(j, atI != null ? atI : i);
+        }
+        return picked;
+    }
+}
@@ -0,0 +1,64 @@
+package com.test.fr_ks_java_springboot_p_l001.grading;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grades stored submissions again after their quiz's answer key has changed.
+ * <p>
+ * Works on the {@link ResultCodec} blob alone: the stored ordinals are folded into a selection
+ * mask and compared with the current key, the raw answer count keeps the single-choice rule
+ * intact and a question that had a foreign answer stays wrong.
+ */
+public final class Regrader {
+
+    /**
+     * @param score   score against the current key
+     * @param results re-encoded blob with the new correctness flags
+     * @param changed whether any question changed outcome
+     */
+    public record Result(double score, byte[] results, boolean changed) {}
+
+    private Regrader() {
+    }
+
+    /**
+     * @throws IllegalStateException if the blob does not fit the key (questions added, removed or replaced)
+     */
+    public static Result regrade(AnswerKey key, byte[] results) {
+        List<ResultCodec.QuestionOutcome> outcomes = ResultCodec.decode(key, results);
+        List<AnswerKey.QuestionKey> questions = key.questions();
+
+        long[] selected = new long[key.answerWords()];
+        List<ResultCodec.QuestionOutcome> regraded = new ArrayList<>(outcomes.size());
+        double score = 0;
+        boolean changed = false;
+
+        for (int i = 0; i < questions.size(); i++) {
+            AnswerKey.QuestionKey q = questions.get(i);
+            ResultCodec.QuestionOutcome outcome = outcomes.get(i);
+
+            for (int ordinal : outcome.ordinals()) {
+                if (ordinal >= q.answerIds().size()) {
+                    throw new IllegalStateException("Stored results do not match the quiz");
+                }
+                int pos = q.position(ordinal);
+                selected[pos >>> 6] |= 1L << pos;
+            }
+
+            boolean correct = !outcome.foreignAnswer()
+                    && BitsetGrader.isCorrect(key, q, outcome.submittedCount(), selected);
+            if (correct) {
+                score += q.score();
+            }
+            if (correct != outcome.correct()) {
+                changed = true;
+                outcome = new ResultCodec.QuestionOutcome(correct, outcome.foreignAnswer(),
+                        outcome.submittedCount(), outcome.ordinals());
+            }
+            regraded.add(outcome);
+        }
+
+        return new Result(score, changed ? ResultCodec.encode(key, regraded) : results, changed);
+    }
+}
@@ -0,0 +1,217 @@
+package com.test.fr_ks_java_springboot_p_l001.grading;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary encoding of a submission's per-question outcome, stored in
+ * {@code quiz_submissions.results}.
+ * <p>
+ * Layout (integers other than the fingerprint are unsigned LEB128 varints):
+ * <pre>
+ * version:byte  fingerprint:8 bytes  questionCount
+ * per question, in {@link AnswerKey#questions()} order:
+ *     header = selectedCount &lt;&lt; 3 | RAW_COUNT? | FOREIGN? | CORRECT?
+ *     [submittedCount]            only when RAW_COUNT is set
+ *     ordinal * selectedCount     index into QuestionKey.answerIds(), ascending
+ * </pre>
+ * A typical single-choice answer costs two bytes, so a 100-question submission is ~200 bytes.
+ * Ordinals are relative to the question, so the blob stays readable after an answer is re-flagged.
+ * The entries are positional: {@link #decode} refuses a blob whose {@link AnswerKey#fingerprint()}
+ * differs from the key's, i.e. one graded against other questions. Version 1 blobs have no
+ * fingerprint and are only checked by question count.
+ */
+public final class ResultCodec {
+
+    static final byte VERSION = 2;
+    private static final byte VERSION_WITHOUT_FINGERPRINT = 1;
+
+    private static final int CORRECT = 1;
+    private static final int FOREIGN = 1 << 1;
+    private static final int RAW_COUNT = 1 << 2;
+
+    /**
+     * Decoded outcome of one question.
+     *
+     * @param correct        graded result at submission time
+     * @param foreignAnswer  an answer id not belonging to the question was submitted (and is not stored)
+     * @param submittedCount number of answer ids as sent by the client, duplicates included
+     * @param ordinals       distinct selected answers of the question, ascending
+     */
+    public record QuestionOutcome(boolean correct, boolean foreignAnswer, int submittedCount, int[] ordinals) {}
+
+    private ResultCodec() {
+    }
+
+    public static byte[] encode(AnswerKey key, GradeResult result) {
+        List<AnswerKey.QuestionKey> questions = key.questions();
+        long[] selected = result.selected();
+        Writer out = new Writer(questions.size() * 3 + 16);
+
+        out.header(key.fingerprint(), questions.size());
+
+        int[] ordinals = new int[64];
+        for (int i = 0; i < questions.size(); i++) {
+            AnswerKey.QuestionKey q = questions.get(i);
+
+            int count = 0;
+            for (int w = 0; w < q.wordCount(); w++) {
+                long word = selected[q.firstWord() + w];
+                while (word != 0) {
+                    if (count == ordinals.length) {
+                        ordinals = Arrays.copyOf(ordinals, count * 2);
+                    }
+                    ordinals[count++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+
+            int submitted = result.submittedIds(i).size();
+            int flags = (result.isCorrect(i) ? CORRECT : 0)
+                    | (result.hasForeignAnswer(i) ? FOREIGN : 0)
+                    | (submitted != count ? RAW_COUNT : 0);
+
+            out.varint(((long) count << 3) | flags);
+            if (submitted != count) {
+                out.varint(submitted);
+            }
+            for (int k = 0; k < count; k++) {
+                out.varint(ordinals[k]);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Encodes already decoded outcomes, e.g. after {@link Regrader} flipped their correctness.
+     */
+    static byte[] encode(AnswerKey key, List<QuestionOutcome> outcomes) {
+        Writer out = new Writer(outcomes.size() * 3 + 16);
+
+        out.header(key.fingerprint(), outcomes.size());
+
+        for (QuestionOutcome o : outcomes) {
+            int count = o.ordinals().length;
+            int flags = (o.correct() ? CORRECT : 0)
+                    | (o.foreignAnswer() ? FOREIGN : 0)
+                    | (o.submittedCount() != count ? RAW_COUNT : 0);
+
+            out.varint(((long) count << 3) | flags);
+            if (o.submittedCount() != count) {
+                out.varint(o.submittedCount());
+            }
+            for (int ordinal : o.ordinals()) {
+                out.varint(ordinal);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalStateException if the blob was not encoded against the questions of {@code key}
+     */
+    public static List<QuestionOutcome> decode(AnswerKey key, byte[] data) {
+        Reader in = new Reader(data);
+        byte version = in.readByte();
+        if (version == VERSION) {
+            if (in.fixed64() != key.fingerprint()) {
+                throw new IllegalStateException("Stored results do not match the quiz");
+            }
+        } else if (version != VERSION_WITHOUT_FINGERPRINT) {
+            throw new IllegalStateException("Unsupported submission results version");
+        }
+
+        int questionCount = (int) in.varint();
+        if (questionCount != key.questions().size()) {
+            throw new IllegalStateException("Stored results do not match the quiz");
+        }
+        List<QuestionOutcome> outcomes = new ArrayList<>(questionCount);
+
+        for (int i = 0; i < questionCount; i++) {
+            long header = in.varint();
+            int count = (int) (header >>> 3);
+            int submitted = (header & RAW_COUNT) != 0 ? (int) in.varint() : count;
+
+            int[] ordinals = new int[count];
+            for (int k = 0; k < count; k++) {
+                ordinals[k] = (int) in.varint();
+            }
+            outcomes.add(new QuestionOutcome(
+                    (header & CORRECT) != 0,
+                    (header & FOREIGN) != 0,
+                    submitted,
+                    ordinals
+            ));
+        }
+        return outcomes;
+    }
+
+    private static final class Writer {
+        byte[] buf;
+        int len;
+
+        Writer(int capacity) {
+            buf = new byte[capacity];
+        }
+
+        void header(long fingerprint, int questionCount) {
+            buf[len++] = VERSION;
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buf[len++] = (byte) (fingerprint >>> shift);
+            }
+            varint(questionCount);
+        }
+
+        void varint(long value) {
+            if (len + 10 > buf.length) {
+                buf = Arrays.copyOf(buf, buf.length * 2 + 10);
+            }
+            while ((value & ~0x7FL) != 0) {
+                buf[len++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[len++] = (byte) value;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, len);
+        }
+    }
+
+    private static final class Reader {
+        final byte[] buf;
+        int pos;
+
+        Reader(byte[] buf) {
+            this.buf = buf;
+        }
+
+        byte readByte() {
+            if (pos >= buf.length) {
+                throw new IllegalStateException("Truncated submission results");
+            }
+            return buf[pos++];
+        }
+
+        long fixed64() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (readByte() & 0xFF);
+            }
+            return value;
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalStateException("Malformed varint in submission results");
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.test.fr_ks_java_springboot_p_l001.grading;
+
+import com.test.fr_ks_java_springboot_p_l001.dto.submissions.ExamSubmitRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Grade of an attempt in progress.
+ * <p>
+ * Each {@link #answer} re-grades only the question it touches and adjusts the running score,
+ * so finishing the attempt is a {@link #snapshot()} rather than a full {@link BitsetGrader#grade}.
+ * Not thread-safe; callers serialise access per attempt.
+ */
+public final class RunningGrade {
+
+    private final AnswerKey key;
+    private final long[] selected;
+    private final long[] correct;
+    private final long[] invalid;
+    private final ExamSubmitRequest.QuestionAnswerDTO[] submissions;
+
+    private double score;
+    private int correctCount;
+    private int answeredCount;
+
+    public RunningGrade(AnswerKey key) {
+        int n = key.questions().size();
+        this.key = key;
+        this.selected = new long[key.answerWords()];
+        this.correct = new long[(n + 63) >>> 6];
+        this.invalid = new long[correct.length];
+        this.submissions = new ExamSubmitRequest.QuestionAnswerDTO[n];
+
+        // an unanswered question can be correct (multiple choice without correct answers)
+        for (int qi = 0; qi < n; qi++) {
+            grade(qi, key.questions().get(qi), 0);
+        }
+    }
+
+    /**
+     * Rebuilds the grade of a saved attempt from its {@link ResultCodec} blob.
+     *
+     * @throws IllegalStateException if the blob does not match the key
+     */
+    public static RunningGrade decode(AnswerKey key, byte[] results) {
+        RunningGrade grade = new RunningGrade(key);
+        List<ResultCodec.QuestionOutcome> outcomes = ResultCodec.decode(key, results);
+        List<AnswerKey.QuestionKey> questions = key.questions();
+        for (int i = 0; i < outcomes.size(); i++) {
+            AnswerKey.QuestionKey q = questions.get(i);
+            ResultCodec.QuestionOutcome outcome = outcomes.get(i);
+            if (outcome.submittedCount() == 0) {
+                continue;
+            }
+
+            List<UUID> answerIds = new ArrayList<>(outcome.ordinals().length);
+            for (int ordinal : outcome.ordinals()) {
+                if (ordinal >= q.answerIds().size()) {
+                    throw new IllegalStateException("Saved answers do not match the quiz");
+                }
+                answerIds.add(q.answerIds().get(ordinal));
+            }
+            grade.restore(i, q, answerIds, outcome);
+        }
+        return grade;
+    }
+
+    public AnswerKey key() {
+        return key;
+    }
+
+    public double score() {
+        return score;
+    }
+
+    public int correctCount() {
+        return correctCount;
+    }
+
+    public int answeredCount() {
+        return answeredCount;
+    }
+
+    /**
+     * Replaces the answer of one question; an empty list clears it.
+     *
+     * @return false if the question is not part of the quiz
+     */
+    public boolean answer(UUID questionId, List<UUID> answerIds) {
+        int qi = key.questionIndex(questionId);
+        if (qi < 0) {
+            return false;
+        }
+        AnswerKey.QuestionKey q = key.questions().get(qi);
+
+        // ================= 1. Undo the previous answer =================
+        clearCorrect(qi, q);
+        invalid[qi >>> 6] &= ~(1L << qi);
+        Arrays.fill(selected, q.firstWord(), q.firstWord() + q.wordCount(), 0L);
+
+        if (answerIds.isEmpty()) {
+            if (submissions[qi] != null) {
+                submissions[qi] = null;
+                answeredCount--;
+            }
+        } else {
+            if (submissions[qi] == null) {
+                answeredCount++;
+            }
+            submissions[qi] = new ExamSubmitRequest.QuestionAnswerDTO(questionId, List.copyOf(answerIds));
+
+            if (!BitsetGrader.select(key, q, answerIds, selected)) {
+                invalid[qi >>> 6] |= 1L << qi;
+                return true;
+            }
+        }
+
+        // ================= 2. Grade this question only =================
+        grade(qi, q, answerIds.size());
+        return true;
+    }
+
+    /**
+     * Current state as an immutable {@link GradeResult}.
+     */
+    public GradeResult snapshot() {
+        return new GradeResult(score, correctCount, correct.clone(), selected.clone(), invalid.clone(),
+                submissions.clone());
+    }
+
+    private void grade(int qi, AnswerKey.QuestionKey q, int submittedCount) {
+        if (BitsetGrader.isCorrect(key, q, submittedCount, selected)) {
+            correct[qi >>> 6] |= 1L << qi;
+            score += q.score();
+            correctCount++;
+        }
+    }
+
+    /**
+     * Restores a saved outcome as is: foreign ids and duplicates are not stored,
+     * so the saved flags are trusted instead of grading the ordinals again.
+     */
+    private void restore(int qi, AnswerKey.QuestionKey q, List<UUID> answerIds, ResultCodec.QuestionOutcome outcome) {
+        clearCorrect(qi, q);
+        answeredCount++;
+        submissions[qi] = new ExamSubmitRequest.QuestionAnswerDTO(q.id(), List.copyOf(answerIds));
+        BitsetGrader.select(key, q, answerIds, selected);
+
+        if (outcome.foreignAnswer()) {
+            invalid[qi >>> 6] |= 1L << qi;
+        }
+        if (outcome.correct()) {
+            correct[qi >>> 6] |= 1L << qi;
+            score += q.score();
+            correctCount++;
+        }
+    }
+
+    private void clearCorrect(int qi, AnswerKey.QuestionKey q) {
+        if ((correct[qi >>> 6] & (1L << qi)) != 0) {
+            correct[qi >>> 6] &= ~(1L << qi);
+            score -= q.score();
+            correctCount--;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.test.fr_ks_java_springboot_p_l001.pagination;
+
+import com.test.fr_ks_java_springboot_p_l001.exception.BadRequestException;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a list ordered by {@code (createdAt desc, id desc)}: the key of the last row returned.
+ * The next page is read with {@code (created_at, id) < (createdAt, id)}, which seeks in the
+ * composite index instead of skipping OFFSET rows.
+ * <p>
+ * Clients get it as an opaque base64url token and send it back unchanged.
+ */
+public record PageCursor(Instant createdAt, UUID id) {
+
+    private static final int LENGTH = Long.BYTES + Integer.BYTES + 2 * Long.BYTES;
+
+    public String encode() {
+        ByteBuffer buf = ByteBuffer.allocate(LENGTH)
+                .putLong(createdAt.getEpochSecond())
+                .putInt(createdAt.getNano())
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buf.array());
+    }
+
+    /**
+     * @return null for a null or blank token (first page)
+     * @throws BadRequestException if the token was not produced by {@link #encode()}
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        if (bytes.length != LENGTH) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        long seconds = buf.getLong();
+        int nanos = buf.getInt();
+        if (nanos < 0 || nanos > 999_999_999) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return new PageCursor(Instant.ofEpochSecond(seconds, nanos), new UUID(buf.getLong(), buf.getLong()));
+    }
+}
@@ -0,0 +1,246 @@
+package com.test.fr_ks_java_springboot_p_l001.regrade;
+
+import com.test.fr_ks_java_springboot_p_l001.entity.RegradeJob;
+import com.test.fr_ks_java_springboot_p_l001.entity.RegradeStatus;
+import com.test.fr_ks_java_springboot_p_l001.grading.AnswerKey;
+import com.test.fr_ks_java_springboot_p_l001.grading.AnswerKeyCache;
+import com.test.fr_ks_java_springboot_p_l001.grading.Regrader;
+import com.test.fr_ks_java_springboot_p_l001.repository.RegradeBatchRepository;
+import com.test.fr_ks_java_springboot_p_l001.repository.RegradeJobRepository;
+import com.test.fr_ks_java_springboot_p_l001.service.AnswerKeyChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regrades stored submissions after an answer key changed.
+ * <p>
+ * Each {@link AnswerKeyChangedEvent} creates one {@link RegradeJob} per quiz, superseding any
+ * unfinished job of that quiz. A single worker thread walks {@code quiz_submissions} of the quiz
+ * by id with keyset pagination, {@code chunk-size} rows at a time, re-scores each row from its
+ * results column with {@link Regrader} and batch-updates the rows whose grade changed. The rows
+ * and the job's cursor (last id processed) are written in the same transaction, so memory stays
+ * at one chunk whatever the number of submissions, and a job interrupted by a restart resumes
+ * after its last committed chunk.
+ */
+@Slf4j
+@Component
+public class RegradeJobRunner implements SmartLifecycle {
+
+    private static final Set<RegradeStatus> UNFINISHED = Set.of(RegradeStatus.PENDING, RegradeStatus.RUNNING);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final RegradeJobRepository jobRepository;
+    private final RegradeBatchRepository batchRepository;
+    private final AnswerKeyCache answerKeyCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Timer chunkTimer;
+    private final Counter changedCounter;
+
+    private volatile ExecutorService worker;
+
+    public RegradeJobRunner(
+            RegradeJobRepository jobRepository,
+            RegradeBatchRepository batchRepository,
+            AnswerKeyCache answerKeyCache,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${exam.regrade.chunk-size:1000}") int chunkSize
+    ) {
+        this.jobRepository = jobRepository;
+        this.batchRepository = batchRepository;
+        this.answerKeyCache = answerKeyCache;
+        // also used from after-commit listeners, where the committed transaction is still bound
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+
+        this.chunkTimer = Timer.builder("exam.regrade.chunk")
+                .description("Latency of regrading one chunk of submissions")
+                .register(meterRegistry);
+        this.changedCounter = Counter.builder("exam.regrade.changed")
+                .description("Stored submissions whose grade changed after a regrade")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs after the question update committed, and after the answer key cache was evicted
+     * by the {@code QuizContentChangedEvent} published before this one.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnswerKeyChanged(AnswerKeyChangedEvent event) {
+        List<UUID> jobIds = transactionTemplate.execute(status -> {
+            int superseded = jobRepository.supersede(event.quizIds(), UNFINISHED, Instant.now());
+            if (superseded > 0) {
+                log.info("Superseded {} regrade job(s) of quizzes {}", superseded, event.quizIds());
+            }
+            List<RegradeJob> jobs = new ArrayList<>(event.quizIds().size());
+            for (UUID quizId : event.quizIds()) {
+                RegradeJob job = new RegradeJob();
+                job.setQuizId(quizId);
+                jobs.add(job);
+            }
+            return jobRepository.saveAll(jobs).stream().map(RegradeJob::getId).toList();
+        });
+        jobIds.forEach(this::enqueue);
+    }
+
+    @Override
+    public void start() {
+        worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "exam-regrade-worker");
+            t.setDaemon(true);
+            return t;
+        });
+
+        List<RegradeJob> unfinished = jobRepository.findByStatusInOrderByCreatedAtAsc(UNFINISHED);
+        unfinished.forEach(job -> enqueue(job.getId()));
+        if (!unfinished.isEmpty()) {
+            log.info("Resuming {} regrade job(s)", unfinished.size());
+        }
+    }
+
+    @Override
+    public void stop() {
+        ExecutorService executor = worker;
+        if (executor == null) {
+            return;
+        }
+        worker = null;
+        // the running job stops after its current chunk and stays RUNNING, to be resumed on the next start
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return worker != null;
+    }
+
+    private void enqueue(UUID jobId) {
+        ExecutorService executor = worker;
+        // not running: the job is PENDING in the database and picked up by the next start
+        if (executor != null) {
+            executor.execute(() -> run(jobId));
+        }
+    }
+
+    private void run(UUID jobId) {
+        RegradeJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || !UNFINISHED.contains(job.getStatus())) {
+            return;
+        }
+        UUID quizId = job.getQuizId();
+
+        try {
+            if (job.getStatus() == RegradeStatus.PENDING) {
+                long total = batchRepository.countByQuiz(quizId);
+                transactionTemplate.executeWithoutResult(s -> jobRepository.begin(jobId, total, Instant.now()));
+                log.info("Regrading {} submission(s) of quiz {} (job {})", total, quizId, jobId);
+            } else {
+                log.info("Resuming regrade job {} of quiz {} after {} submission(s)",
+                        jobId, quizId, job.getProcessedCount());
+            }
+
+            UUID cursor = job.getLastSubmissionId();
+            while (!Thread.currentThread().isInterrupted()) {
+                // a newer key change supersedes this job
+                if (jobRepository.findStatusById(jobId).orElse(null) != RegradeStatus.RUNNING) {
+                    log.info("Regrade job {} of quiz {} stopped: superseded", jobId, quizId);
+                    return;
+                }
+                UUID after = cursor;
+                UUID last = chunkTimer.record(() -> regradeChunk(jobId, quizId, after));
+                if (last == null) {
+                    transactionTemplate.executeWithoutResult(s ->
+                            jobRepository.finish(jobId, RegradeStatus.COMPLETED, null, Instant.now()));
+                    log.info("Regrade job {} of quiz {} completed", jobId, quizId);
+                    return;
+                }
+                cursor = last;
+            }
+        } catch (RuntimeException ex) {
+            if (worker == null) {
+                log.warn("Regrade job {} of quiz {} interrupted by shutdown, will resume", jobId, quizId);
+                return;
+            }
+            log.error("Regrade job {} of quiz {} failed", jobId, quizId, ex);
+            String error = String.valueOf(ex.getMessage());
+            transactionTemplate.executeWithoutResult(s -> jobRepository.finish(jobId, RegradeStatus.FAILED,
+                    error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error, Instant.now()));
+        }
+    }
+
+    /**
+     * Regrades the chunk after {@code cursor} and advances the job in the same transaction.
+     *
+     * @return id of the last submission of the chunk, null when there is none left
+     */
+    private UUID regradeChunk(UUID jobId, UUID quizId, UUID cursor) {
+        // re-read per chunk, the cache is evicted when the quiz changes
+        AnswerKey key = answerKeyCache.get(quizId);
+        List<ScoredSubmission> chunk = batchRepository.findChunk(quizId, cursor, chunkSize);
+        if (chunk.isEmpty()) {
+            return null;
+        }
+
+        List<ScoredSubmission> updates = new ArrayList<>();
+        long skipped = 0;
+
+        for (ScoredSubmission row : chunk) {
+            AnswerKey rowKey;
+            Regrader.Result r;
+            try {
+                // a sampled attempt is regraded against its own questions
+                rowKey = key.forSample(row.questionSeed(), row.questionCount());
+                r = Regrader.regrade(rowKey, row.results());
+            } catch (IllegalStateException ex) {
+                // questions added, removed or replaced since the submission (or its sample), its answers cannot be mapped
+                skipped++;
+                continue;
+            }
+            double totalScore = rowKey.totalScore();
+            boolean passed = (r.score() / totalScore) * 100 >= 50;
+            if (r.changed() || r.score() != row.score()
+                    || row.totalScore() == null || row.totalScore() != totalScore
+                    || !Boolean.valueOf(passed).equals(row.passed())) {
+                updates.add(new ScoredSubmission(row.id(), r.score(), totalScore, passed, r.results(),
+                        row.questionSeed(), row.questionCount()));
+            }
+        }
+
+        UUID last = chunk.get(chunk.size() - 1).id();
+        long processed = chunk.size();
+        long changed = updates.size();
+        long skippedRows = skipped;
+
+        transactionTemplate.executeWithoutResult(s -> {
+            batchRepository.updateAll(updates);
+            jobRepository.advance(jobId, last, processed, changed, skippedRows, Instant.now());
+        });
+        changedCounter.increment(changed);
+        return last;
+    }
+}
@@ -0,0 +1,17 @@
+package com.test.fr_ks_java_springboot_p_l001.regrade;
+
+import java.util.UUID;
+
+/**
+ * Score columns of one {@code quiz_submissions} row, as read and rewritten by a regrade.
+ * The question sample, if any, is read only: it says which key the row is regraded against.
+ */
+public record ScoredSubmission(
+        UUID id,
+        double score,
+        Double totalScore,
+        Boolean passed,
+        byte[] results,
+        Long questionSeed,
+        Integer questionCount
+) {}
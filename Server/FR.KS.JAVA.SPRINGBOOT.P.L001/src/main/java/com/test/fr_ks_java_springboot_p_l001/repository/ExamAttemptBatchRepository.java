@@ -0,0 +1,86 @@
+package com.test.fr_ks_java_springboot_p_l001.repository;
+
+import com.test.fr_ks_java_springboot_p_l001.attempt.AttemptSnapshot;
+import com.test.fr_ks_java_springboot_p_l001.entity.AttemptStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Plain JDBC batch writes to {@code exam_attempts}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ExamAttemptBatchRepository {
+
+    // the revision check drops a snapshot that lost the race against a newer one
+    private static final String UPSERT_SQL = """
+            INSERT INTO exam_attempts
+                (id, user_id, quiz_id, status, started_at, deadline, duration_minutes,
+                 score, answered_count, results, revision, question_seed, question_count,
+                 created_at, updated_at, is_active)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, now(), now(), true)
+            ON CONFLICT (id) DO UPDATE SET
+                status = EXCLUDED.status,
+                score = EXCLUDED.score,
+                answered_count = EXCLUDED.answered_count,
+                results = EXCLUDED.results,
+                revision = EXCLUDED.revision,
+                updated_at = EXCLUDED.updated_at
+            WHERE exam_attempts.revision < EXCLUDED.revision
+            """;
+
+    private static final String SELECT_BY_STATUS_SQL = """
+            SELECT id, user_id, quiz_id, status, started_at, deadline, duration_minutes,
+                   score, answered_count, results, revision, question_seed, question_count
+            FROM exam_attempts
+            WHERE status = ? AND is_active = true
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void upsertAll(List<AttemptSnapshot> attempts) {
+        if (attempts.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, attempts, attempts.size(), (ps, a) -> {
+            ps.setObject(1, a.id());
+            ps.setObject(2, a.userId());
+            ps.setObject(3, a.quizId());
+            ps.setString(4, a.status().name());
+            ps.setObject(5, a.startedAt().atOffset(ZoneOffset.UTC));
+            ps.setObject(6, a.deadline().atOffset(ZoneOffset.UTC));
+            ps.setInt(7, a.durationMinutes());
+            ps.setDouble(8, a.score());
+            ps.setInt(9, a.answeredCount());
+            ps.setBytes(10, a.results());
+            ps.setLong(11, a.revision());
+            ps.setObject(12, a.questionSeed(), Types.BIGINT);
+            ps.setObject(13, a.questionCount(), Types.INTEGER);
+        });
+    }
+
+    public List<AttemptSnapshot> findByStatus(AttemptStatus status) {
+        return jdbcTemplate.query(SELECT_BY_STATUS_SQL, (rs, i) -> new AttemptSnapshot(
+                rs.getObject("id", UUID.class),
+                rs.getObject("user_id", UUID.class),
+                rs.getObject("quiz_id", UUID.class),
+                AttemptStatus.valueOf(rs.getString("status")),
+                rs.getObject("started_at", OffsetDateTime.class).toInstant(),
+                rs.getObject("deadline", OffsetDateTime.class).toInstant(),
+                rs.getInt("duration_minutes"),
+                rs.getDouble("score"),
+                rs.getInt("answered_count"),
+                rs.getBytes("results"),
+                rs.getLong("revision"),
+                rs.getObject("question_seed", Long.class),
+                rs.getObject("question_count", Integer.class)
+        ), status.name());
+    }
+}
@@ -0,0 +1,73 @@
+package com.test.fr_ks_java_springboot_p_l001.repository;
+
+import com.test.fr_ks_java_springboot_p_l001.bulkimport.QuestionRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plain JDBC batch writes to {@code questions} and {@code answers}, bypassing the persistence context.
+ */
+@Repository
+@RequiredArgsConstructor
+public class QuestionBatchRepository {
+
+    private static final String INSERT_QUESTION_SQL = """
+            INSERT INTO questions (id, content, type, score, created_at, updated_at, is_active)
+            VALUES (?, ?, ?, ?, ?, ?, true)
+            """;
+
+    private static final String INSERT_ANSWER_SQL = """
+            INSERT INTO answers (id, content, is_correct, question_id, created_at, updated_at, is_active)
+            VALUES (?, ?, ?, ?, ?, ?, true)
+            """;
+
+    private record AnswerInsert(QuestionRow.AnswerRow answer, QuestionRow question, OffsetDateTime createdAt) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the questions, then their answers; the caller provides the transaction.
+     */
+    public void insertAll(List<QuestionRow> questions, Instant now) {
+        if (questions.isEmpty()) {
+            return;
+        }
+        // microseconds: the precision of timestamp columns in PostgreSQL
+        Instant base = now.truncatedTo(ChronoUnit.MICROS);
+        OffsetDateTime createdAt = base.atOffset(ZoneOffset.UTC);
+
+        jdbcTemplate.batchUpdate(INSERT_QUESTION_SQL, questions, questions.size(), (ps, q) -> {
+            ps.setObject(1, q.id());
+            ps.setString(2, q.content());
+            ps.setString(3, q.type().name());
+            ps.setInt(4, q.score());
+            ps.setObject(5, createdAt);
+            ps.setObject(6, createdAt);
+        });
+
+        // Question.answers is ordered by (createdAt, id): one microsecond apart keeps the file order,
+        // which answer positions stored in quiz_submissions.results depend on
+        List<AnswerInsert> answers = new ArrayList<>();
+        for (QuestionRow q : questions) {
+            for (int i = 0; i < q.answers().size(); i++) {
+                answers.add(new AnswerInsert(q.answers().get(i), q, base.plus(i, ChronoUnit.MICROS).atOffset(ZoneOffset.UTC)));
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_ANSWER_SQL, answers, answers.size(), (ps, a) -> {
+            ps.setObject(1, a.answer().id());
+            ps.setString(2, a.answer().content());
+            ps.setBoolean(3, a.answer().correct());
+            ps.setObject(4, a.question().id());
+            ps.setObject(5, a.createdAt());
+            ps.setObject(6, a.createdAt());
+        });
+    }
+}
@@ -0,0 +1,104 @@
+package com.test.fr_ks_java_springboot_p_l001.repository;
+
+import com.test.fr_ks_java_springboot_p_l001.dto.answer.answerResponse;
+import com.test.fr_ks_java_springboot_p_l001.dto.question.QuestionExport;
+import com.test.fr_ks_java_springboot_p_l001.entity.QuestionType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Forward-only JDBC read of a quiz's question bank, one question at a time.
+ * <p>
+ * Rows come from a server-side cursor {@code fetch-size} at a time, so memory does not grow with
+ * the bank. PostgreSQL only opens the cursor inside a transaction; with autocommit the driver
+ * reads the whole result set first, so callers must run in one.
+ */
+@Repository
+public class QuestionExportRepository {
+
+    // one row per answer, grouped by question; answers in the same order as AnswerKey
+    private static final String EXPORT_SQL = """
+            SELECT q.id, q.content, q.type, q.score,
+                   a.id AS answer_id, a.content AS answer_content, a.is_correct
+            FROM quiz_questions qq
+            JOIN questions q ON q.id = qq.question_id AND q.is_active = true
+            LEFT JOIN answers a ON a.question_id = q.id
+            WHERE qq.quiz_id = ?
+            ORDER BY q.id, a.created_at, a.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public QuestionExportRepository(DataSource dataSource,
+                                    @Value("${exam.question-export.fetch-size:500}") int fetchSize) {
+        // own template: the fetch size must not apply to every other query
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Passes each active question of the quiz, with its answers, to {@code sink} in id order.
+     *
+     * @return number of questions read
+     */
+    public long forEachQuestion(UUID quizId, Consumer<QuestionExport> sink) {
+        Grouper grouper = new Grouper(sink);
+        jdbcTemplate.query(EXPORT_SQL, grouper, quizId);
+        grouper.flush();
+        return grouper.count;
+    }
+
+    /**
+     * Folds consecutive answer rows of one question into a {@link QuestionExport}.
+     */
+    private static final class Grouper implements RowCallbackHandler {
+
+        private final Consumer<QuestionExport> sink;
+        private UUID id;
+        private String content;
+        private QuestionType type;
+        private int score;
+        private List<answerResponse> answers = new ArrayList<>();
+        private long count;
+
+        Grouper(Consumer<QuestionExport> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            UUID rowId = rs.getObject("id", UUID.class);
+            if (!rowId.equals(id)) {
+                flush();
+                id = rowId;
+                content = rs.getString("content");
+                type = QuestionType.valueOf(rs.getString("type"));
+                score = rs.getInt("score");
+            }
+            UUID answerId = rs.getObject("answer_id", UUID.class);
+            if (answerId != null) {
+                answers.add(new answerResponse(answerId, rs.getString("answer_content"), rs.getBoolean("is_correct")));
+            }
+        }
+
+        void flush() {
+            if (id == null) {
+                return;
+            }
+            sink.accept(new QuestionExport(id, content, type, score, List.copyOf(answers)));
+            count++;
+            id = null;
+            answers = new ArrayList<>();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.test.fr_ks_java_springboot_p_l001.repository;
+
+import com.test.fr_ks_java_springboot_p_l001.entity.Question;
+import com.test.fr_ks_java_springboot_p_l001.entity.Quiz;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Set-based writes to the {@code quiz_questions} join table: one statement per call whatever the
+ * number of questions, relying on the unique (quiz_id, question_id) index (see SchemaInitializer).
+ * <p>
+ * Hibernate does not see these writes, so the cached {@code Quiz.questions} / {@code Question.quiz}
+ * collections and query results are evicted, again after commit so that a concurrent reader
+ * cannot put the old links back.
+ */
+@Repository
+public class QuizQuestionBatchRepository {
+
+    /**
+     * @param requested distinct ids sent
+     * @param found     ids matching an active question
+     * @param attached  links inserted, the others were already there
+     */
+    public record AttachResult(int requested, int found, int attached) {}
+
+    private static final String QUIZ_QUESTIONS = Quiz.class.getName() + ".questions";
+    private static final String QUESTION_QUIZZES = Question.class.getName() + ".quiz";
+
+    // counts and insert in a single round trip; ON CONFLICT makes re-attaching a no-op
+    private static final String ATTACH_SQL = """
+            WITH requested AS (SELECT DISTINCT unnest(?::uuid[]) AS id),
+                 found AS (SELECT q.id FROM questions q JOIN requested r ON r.id = q.id WHERE q.is_active = true),
+                 inserted AS (
+                     INSERT INTO quiz_questions (quiz_id, question_id)
+                     SELECT ?, id FROM found
+                     ON CONFLICT (quiz_id, question_id) DO NOTHING
+                     RETURNING 1
+                 )
+            SELECT (SELECT count(*) FROM requested) AS requested,
+                   (SELECT count(*) FROM found) AS found,
+                   (SELECT count(*) FROM inserted) AS attached
+            """;
+
+    private static final String DETACH_SQL = """
+            DELETE FROM quiz_questions WHERE quiz_id = ? AND question_id = ANY (?::uuid[])
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache cache;
+
+    public QuizQuestionBatchRepository(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    /**
+     * Links the active questions among {@code questionIds} to the quiz; already linked ones are left as is.
+     */
+    public AttachResult attach(UUID quizId, Collection<UUID> questionIds) {
+        AttachResult result = jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(ATTACH_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", questionIds.toArray()));
+            ps.setObject(2, quizId);
+            return ps;
+        }, rs -> {
+            rs.next();
+            return new AttachResult(rs.getInt("requested"), rs.getInt("found"), rs.getInt("attached"));
+        });
+        evict(quizId, questionIds);
+        return result;
+    }
+
+    /**
+     * Unlinks the given questions from the quiz; ids not linked are ignored.
+     *
+     * @return links deleted
+     */
+    public int detach(UUID quizId, Collection<UUID> questionIds) {
+        int deleted = jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement(DETACH_SQL);
+            ps.setObject(1, quizId);
+            ps.setArray(2, con.createArrayOf("uuid", questionIds.toArray()));
+            return ps;
+        });
+        evict(quizId, questionIds);
+        return deleted;
+    }
+
+    private void evict(UUID quizId, Collection<UUID> questionIds) {
+        Runnable evict = () -> {
+            cache.evictCollectionData(QUIZ_QUESTIONS, quizId);
+            questionIds.forEach(id -> cache.evictCollectionData(QUESTION_QUIZZES, id));
+            cache.evictDefaultQueryRegion();
+        };
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        }
+    }
+}
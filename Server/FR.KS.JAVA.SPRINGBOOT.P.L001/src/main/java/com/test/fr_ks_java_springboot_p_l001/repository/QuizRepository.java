@@ -1,27 +1,70 @@
 package com.test.fr_ks_java_springboot_p_l001.repository;
 
+import com.test.fr_ks_java_springboot_p_l001.dto.quiz.QuizSummary;
 import com.test.fr_ks_java_springboot_p_l001.entity.Quiz;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface QuizRepository extends JpaRepository<Quiz, UUID>, JpaSpecificationExecutor<Quiz> {
 
-    @EntityGraph(attributePaths = {"questions", "questions.answers"})
-    Optional<Quiz> findWithQuestionsAndAnswersById(UUID id);
+    // danh sách chỉ cần số câu hỏi: đếm bằng subquery trên quiz_questions, phân trang bằng LIMIT/OFFSET
+    // (EntityGraph trên collection + Pageable khiến Hibernate phân trang trong bộ nhớ)
+    @Query(value = """
+            select new com.test.fr_ks_java_springboot_p_l001.dto.quiz.QuizSummary(
+                q.id, q.title, q.description, q.durationMinutes, q.questionsPerAttempt, q.active, size(q.questions), q.createdAt, q.updatedAt)
+            from Quiz q
+            where q.active = true
+            """,
+            countQuery = "select count(q) from Quiz q where q.active = true")
+    Page<QuizSummary> findSummariesByActiveTrue(Pageable pageable);
 
-    // list có thể không cần answers, tùy use-case
-    @EntityGraph(attributePaths = {"questions"})
-    Page<Quiz> findAllByActiveTrue(Pageable pageable);
+    @Query("""
+            select new com.test.fr_ks_java_springboot_p_l001.dto.quiz.QuizSummary(
+                q.id, q.title, q.description, q.durationMinutes, q.questionsPerAttempt, q.active, size(q.questions), q.createdAt, q.updatedAt)
+            from Quiz q
+            where q.id = :id and q.active = true
+            """)
+    Optional<QuizSummary> findSummaryByIdAndActiveTrue(@Param("id") UUID id);
 
+    // keyset: (created_at, id) < cursor dùng index idx_quizzes_active_created_at_id, không OFFSET, không count
+    @Query("""
+            select new com.test.fr_ks_java_springboot_p_l001.dto.quiz.QuizSummary(
+                q.id, q.title, q.description, q.durationMinutes, q.questionsPerAttempt, q.active, size(q.questions), q.createdAt, q.updatedAt)
+            from Quiz q
+            where q.active = true
+            order by q.createdAt desc, q.id desc
+            """)
+    List<QuizSummary> findSummariesFirstPage(Limit limit);
+
+    @Query("""
+            select new com.test.fr_ks_java_springboot_p_l001.dto.quiz.QuizSummary(
+                q.id, q.title, q.description, q.durationMinutes, q.questionsPerAttempt, q.active, size(q.questions), q.createdAt, q.updatedAt)
+            from Quiz q
+            where q.active = true and (q.createdAt, q.id) < (:createdAt, :id)
+            order by q.createdAt desc, q.id desc
+            """)
+    List<QuizSummary> findSummariesAfter(@Param("createdAt") Instant createdAt, @Param("id") UUID id, Limit limit);
+
+    // kết quả query được cache (L2), entity lấy từ region của Quiz
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Quiz> findByIdAndActiveTrue(UUID id);
 
+    boolean existsByIdAndActiveTrue(UUID id);
+
     boolean existsByTitle(String title);
 }
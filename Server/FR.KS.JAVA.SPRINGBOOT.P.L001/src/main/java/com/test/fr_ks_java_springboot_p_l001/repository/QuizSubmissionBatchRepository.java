@@ -0,0 +1,52 @@
+package com.test.fr_ks_java_springboot_p_l001.repository;
+
+import com.test.fr_ks_java_springboot_p_l001.submission.PendingSubmission;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Plain JDBC batch writes to {@code quiz_submissions}, bypassing the persistence context.
+ */
+@Repository
+@RequiredArgsConstructor
+public class QuizSubmissionBatchRepository {
+
+    // ON CONFLICT (id) makes replaying a journal after a crash idempotent. A duplicate
+    // (user_id, idempotency_key) still fails: keyed submissions are written synchronously,
+    // so their conflicts are resolved before an id is returned
+    private static final String INSERT_SQL = """
+            INSERT INTO quiz_submissions
+                (id, user_id, quiz_id, score, total_score, passed, results,
+                 submission_time, created_at, updated_at, idempotency_key, question_seed, question_count, is_active)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, true)
+            ON CONFLICT (id) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<PendingSubmission> submissions) {
+        if (submissions.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, submissions, submissions.size(), (ps, s) -> {
+            ps.setObject(1, s.id());
+            ps.setObject(2, s.userId());
+            ps.setObject(3, s.quizId());
+            ps.setDouble(4, s.score());
+            ps.setDouble(5, s.totalScore());
+            ps.setBoolean(6, s.passed());
+            ps.setBytes(7, s.results());
+            ps.setObject(8, s.submissionTime());
+            ps.setObject(9, s.createdAt().atOffset(ZoneOffset.UTC));
+            ps.setObject(10, s.createdAt().atOffset(ZoneOffset.UTC));
+            ps.setString(11, s.idempotencyKey());
+            ps.setObject(12, s.questionSeed(), Types.BIGINT);
+            ps.setObject(13, s.questionCount(), Types.INTEGER);
+        });
+    }
+}
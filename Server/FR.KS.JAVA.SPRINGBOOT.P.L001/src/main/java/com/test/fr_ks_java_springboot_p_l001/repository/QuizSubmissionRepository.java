@@ -1,13 +1,19 @@
 package com.test.fr_ks_java_springboot_p_l001.repository;
 
 import com.test.fr_ks_java_springboot_p_l001.entity.QuizSubmission;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Optional;
 import java.util.UUID;
 
 public interface QuizSubmissionRepository extends JpaRepository<QuizSubmission, UUID> {
 
+    @EntityGraph(attributePaths = "user")
+    Optional<QuizSubmission> findWithUserById(UUID id);
 
+    @Query("select s from QuizSubmission s where s.user.id = :userId and s.idempotencyKey = :key")
+    Optional<QuizSubmission> findByIdempotencyKey(@Param("userId") UUID userId, @Param("key") String key);
 }
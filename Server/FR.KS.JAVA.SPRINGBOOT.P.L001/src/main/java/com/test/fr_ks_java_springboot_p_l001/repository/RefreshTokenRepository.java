@@ -0,0 +1,35 @@
+package com.test.fr_ks_java_springboot_p_l001.repository;
+
+import com.test.fr_ks_java_springboot_p_l001.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
+
+    // điều kiện nằm trong WHERE: hai request cùng token thì chỉ một request được 1 row
+    @Modifying
+    @Query("""
+            update RefreshToken t set t.usedAt = :now, t.updatedAt = :now
+            where t.tokenHash = :hash and t.usedAt is null and t.revokedAt is null and t.expiresAt > :now
+            """)
+    int consume(@Param("hash") byte[] hash, @Param("now") Instant now);
+
+    @Modifying
+    @Query("""
+            update RefreshToken t set t.revokedAt = :now, t.updatedAt = :now
+            where t.familyId = :familyId and t.revokedAt is null
+            """)
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.expiresAt < :before")
+    int deleteExpired(@Param("before") Instant before);
+}
@@ -0,0 +1,74 @@
+package com.test.fr_ks_java_springboot_p_l001.repository;
+
+import com.test.fr_ks_java_springboot_p_l001.regrade.ScoredSubmission;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keyset scan and batch update of {@code quiz_submissions} for regrade jobs.
+ * Both rely on the (quiz_id, id) index.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RegradeBatchRepository {
+
+    private static final UUID MIN_ID = new UUID(0, 0);
+
+    // keyset pagination: cost per chunk does not grow with the position in the table
+    private static final String CHUNK_SQL = """
+            SELECT id, score, total_score, passed, results, question_seed, question_count
+            FROM quiz_submissions
+            WHERE quiz_id = ? AND id > ? AND results IS NOT NULL
+            ORDER BY id
+            LIMIT ?
+            """;
+
+    private static final String COUNT_SQL = """
+            SELECT count(*) FROM quiz_submissions WHERE quiz_id = ? AND results IS NOT NULL
+            """;
+
+    private static final String UPDATE_SQL = """
+            UPDATE quiz_submissions
+            SET score = ?, total_score = ?, passed = ?, results = ?, updated_at = now()
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param afterId last id of the previous chunk, null for the first one
+     */
+    public List<ScoredSubmission> findChunk(UUID quizId, UUID afterId, int limit) {
+        return jdbcTemplate.query(CHUNK_SQL, (rs, i) -> new ScoredSubmission(
+                rs.getObject("id", UUID.class),
+                rs.getDouble("score"),
+                rs.getObject("total_score", Double.class),
+                rs.getObject("passed", Boolean.class),
+                rs.getBytes("results"),
+                rs.getObject("question_seed", Long.class),
+                rs.getObject("question_count", Integer.class)
+        ), quizId, afterId != null ? afterId : MIN_ID, limit);
+    }
+
+    public long countByQuiz(UUID quizId) {
+        Long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class, quizId);
+        return count != null ? count : 0;
+    }
+
+    public void updateAll(List<ScoredSubmission> submissions) {
+        if (submissions.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SQL, submissions, submissions.size(), (ps, s) -> {
+            ps.setDouble(1, s.score());
+            ps.setDouble(2, s.totalScore());
+            ps.setBoolean(3, s.passed());
+            ps.setBytes(4, s.results());
+            ps.setObject(5, s.id());
+        });
+    }
+}
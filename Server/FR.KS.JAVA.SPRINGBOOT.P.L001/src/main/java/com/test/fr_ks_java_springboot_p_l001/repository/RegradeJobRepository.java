@@ -0,0 +1,65 @@
+package com.test.fr_ks_java_springboot_p_l001.repository;
+
+import com.test.fr_ks_java_springboot_p_l001.entity.RegradeJob;
+import com.test.fr_ks_java_springboot_p_l001.entity.RegradeStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface RegradeJobRepository extends JpaRepository<RegradeJob, UUID> {
+
+    List<RegradeJob> findByStatusInOrderByCreatedAtAsc(Collection<RegradeStatus> statuses);
+
+    List<RegradeJob> findByQuizIdOrderByCreatedAtDesc(UUID quizId);
+
+    @Query("select j.status from RegradeJob j where j.id = :id")
+    Optional<RegradeStatus> findStatusById(@Param("id") UUID id);
+
+    /**
+     * Stops the unfinished jobs of the given quizzes, a newer key makes their work obsolete.
+     */
+    @Modifying
+    @Query("""
+            update RegradeJob j set j.status = com.test.fr_ks_java_springboot_p_l001.entity.RegradeStatus.SUPERSEDED,
+                j.finishedAt = :now, j.updatedAt = :now
+            where j.quizId in :quizIds and j.status in :unfinished
+            """)
+    int supersede(@Param("quizIds") Collection<UUID> quizIds,
+                  @Param("unfinished") Collection<RegradeStatus> unfinished, @Param("now") Instant now);
+
+    @Modifying
+    @Query("""
+            update RegradeJob j set j.status = com.test.fr_ks_java_springboot_p_l001.entity.RegradeStatus.RUNNING,
+                j.totalCount = :total, j.startedAt = :now, j.updatedAt = :now
+            where j.id = :id and j.status = com.test.fr_ks_java_springboot_p_l001.entity.RegradeStatus.PENDING
+            """)
+    int begin(@Param("id") UUID id, @Param("total") long total, @Param("now") Instant now);
+
+    @Modifying
+    @Query("""
+            update RegradeJob j set j.status = :status, j.error = :error, j.finishedAt = :now, j.updatedAt = :now
+            where j.id = :id and j.status = com.test.fr_ks_java_springboot_p_l001.entity.RegradeStatus.RUNNING
+            """)
+    int finish(@Param("id") UUID id, @Param("status") RegradeStatus status, @Param("error") String error,
+               @Param("now") Instant now);
+
+    @Modifying
+    @Query("""
+            update RegradeJob j set
+                j.lastSubmissionId = :cursor,
+                j.processedCount = j.processedCount + :processed,
+                j.changedCount = j.changedCount + :changed,
+                j.skippedCount = j.skippedCount + :skipped,
+                j.updatedAt = :now
+            where j.id = :id
+            """)
+    int advance(@Param("id") UUID id, @Param("cursor") UUID cursor, @Param("processed") long processed,
+                @Param("changed") long changed, @Param("skipped") long skipped, @Param("now") Instant now);
+}
@@ -0,0 +1,24 @@
+package com.test.fr_ks_java_springboot_p_l001.repository;
+
+import com.test.fr_ks_java_springboot_p_l001.entity.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, UUID> {
+
+    // nạp lúc khởi động: chỉ các row còn có thể khớp một access token chưa hết hạn
+    List<TokenRevocation> findByNotBeforeAfter(Instant since);
+
+    // đọc tăng dần theo updated_at (idx_token_revocations_updated_at)
+    List<TokenRevocation> findByUpdatedAtAfter(Instant since);
+
+    @Modifying
+    @Query("delete from TokenRevocation r where r.notBefore < :before")
+    int deleteExpired(@Param("before") Instant before);
+}
@@ -0,0 +1,89 @@
+package com.test.fr_ks_java_springboot_p_l001.repository;
+
+import com.test.fr_ks_java_springboot_p_l001.bulkimport.UserRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Plain JDBC access to {@code users} and {@code user_roles} for bulk imports, bypassing the persistence context.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserBatchRepository {
+
+    // one round trip per chunk, served by idx_users_email_lower (see SchemaInitializer)
+    private static final String EXISTING_EMAILS_SQL = """
+            SELECT lower(email) FROM users WHERE lower(email) = ANY (?)
+            """;
+
+    private static final String INSERT_USER_SQL = """
+            INSERT INTO users (id, email, password, full_name, active, created_at, updated_at, is_active)
+            VALUES (?, ?, ?, ?, true, ?, ?, true)
+            """;
+
+    private static final String INSERT_USER_ROLE_SQL = """
+            INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)
+            """;
+
+    private record UserRole(UUID userId, UUID roleId) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param emails lower-cased
+     * @return those already taken, lower-cased
+     */
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(EXISTING_EMAILS_SQL);
+            ps.setArray(1, con.createArrayOf("text", emails.toArray()));
+            return ps;
+        }, (rs, i) -> rs.getString(1)));
+    }
+
+    /**
+     * Inserts the users, then their roles; the caller provides the transaction.
+     */
+    public void insertAll(List<UserRow> users, Instant now) {
+        if (users.isEmpty()) {
+            return;
+        }
+        // microseconds: the precision of timestamp columns in PostgreSQL
+        OffsetDateTime createdAt = now.truncatedTo(ChronoUnit.MICROS).atOffset(ZoneOffset.UTC);
+
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, users, users.size(), (ps, u) -> {
+            ps.setObject(1, u.id());
+            ps.setString(2, u.email());
+            ps.setString(3, u.passwordHash());
+            ps.setString(4, u.fullName());
+            ps.setObject(5, createdAt);
+            ps.setObject(6, createdAt);
+        });
+
+        List<UserRole> roles = new ArrayList<>(users.size());
+        for (UserRow u : users) {
+            for (UUID roleId : u.roleIds()) {
+                roles.add(new UserRole(u.id(), roleId));
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER_ROLE_SQL, roles, roles.size(), (ps, r) -> {
+            ps.setObject(1, r.userId());
+            ps.setObject(2, r.roleId());
+        });
+    }
+}
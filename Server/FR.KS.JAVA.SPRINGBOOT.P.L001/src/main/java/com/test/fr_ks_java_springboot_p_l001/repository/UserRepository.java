@@ -1,22 +1,57 @@
 package com.test.fr_ks_java_springboot_p_l001.repository;
 
 import com.test.fr_ks_java_springboot_p_l001.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
 
     Optional<User> findByIdAndActiveTrue(UUID id);
 
+    boolean existsByIdAndActiveTrue(UUID id);
+
     Page<User> findByActiveTrue(Pageable pageable);
 
-    boolean existsByEmailIgnoreCase(String email);
+    // keyset: (created_at, id) < cursor dùng index idx_users_created_at_id, không OFFSET, không count
+    @Query("""
+            select u from User u
+            where u.active = true
+            order by u.createdAt desc, u.id desc
+            """)
+    List<User> findFirstPage(Limit limit);
+
+    @Query("""
+            select u from User u
+            where u.active = true and (u.createdAt, u.id) < (:createdAt, :id)
+            order by u.createdAt desc, u.id desc
+            """)
+    List<User> findPageAfter(@Param("createdAt") Instant createdAt, @Param("id") UUID id, Limit limit);
+
+    // lower() và không dùng IgnoreCase (upper()): khớp index idx_users_email_lower
+    @Query("select case when count(u) > 0 then true else false end from User u where lower(u.email) = lower(:email)")
+    boolean existsByEmailIgnoreCase(@Param("email") String email);
+
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id")
+    int updatePassword(@Param("id") UUID id, @Param("password") String password);
 
     @EntityGraph(attributePaths = "roles")
-    Optional<User> findByEmailIgnoreCaseAndActiveTrue(String email);
+    @Query("select u from User u where lower(u.email) = lower(:email) and u.active = true")
+    Optional<User> findByEmailIgnoreCaseAndActiveTrue(@Param("email") String email);
+
+    @Query("select u.id from User u where u.id in :ids")
+    Set<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
 }
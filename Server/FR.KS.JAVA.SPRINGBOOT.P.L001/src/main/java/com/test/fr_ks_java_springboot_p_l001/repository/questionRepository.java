@@ -1,11 +1,20 @@
 package com.test.fr_ks_java_springboot_p_l001.repository;
 
 import com.test.fr_ks_java_springboot_p_l001.entity.Question;
+import com.test.fr_ks_java_springboot_p_l001.entity.QuestionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -14,7 +23,53 @@ public interface questionRepository extends JpaRepository<Question, UUID> {
 
     Page<Question> findByActiveTrue(Pageable pageable);
 
+    // keyset: (created_at, id) < cursor dùng index idx_questions_active_created_at_id, không OFFSET, không count
+    @Query("""
+            select q from Question q
+            where q.active = true
+            order by q.createdAt desc, q.id desc
+            """)
+    List<Question> findFirstPage(Limit limit);
+
+    @Query("""
+            select q from Question q
+            where q.active = true and (q.createdAt, q.id) < (:createdAt, :id)
+            order by q.createdAt desc, q.id desc
+            """)
+    List<Question> findPageAfter(@Param("createdAt") Instant createdAt, @Param("id") UUID id, Limit limit);
+
+    Page<Question> findByActiveTrueAndType(QuestionType type, Pageable pageable);
+
+    // full-text: content_tsv (cột generated + GIN index, xem SchemaInitializer), xếp hạng bằng ts_rank_cd
+    @Query(value = """
+            SELECT q.* FROM questions q
+            WHERE q.is_active = true
+              AND q.content_tsv @@ websearch_to_tsquery('simple', :content)
+              AND (CAST(:type AS varchar) IS NULL OR q.type = CAST(:type AS varchar))
+            ORDER BY ts_rank_cd(q.content_tsv, websearch_to_tsquery('simple', :content)) DESC, q.id
+            """,
+            countQuery = """
+            SELECT count(*) FROM questions q
+            WHERE q.is_active = true
+              AND q.content_tsv @@ websearch_to_tsquery('simple', :content)
+              AND (CAST(:type AS varchar) IS NULL OR q.type = CAST(:type AS varchar))
+            """,
+            nativeQuery = true)
+    Page<Question> search(@Param("content") String content, @Param("type") String type, Pageable pageable);
+
+    // kết quả query được cache (L2), entity lấy từ region của Question
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Question> findByIdAndActiveTrue(UUID id);
 
     boolean existsByIdAndActiveTrue(UUID id);
+
+    // chỉ fetch 1 bag (answers) để tránh MultipleBagFetchException
+    @Query("""
+            select distinct q from Quiz z
+            join z.questions q
+            left join fetch q.answers
+            where z.id = :quizId and q.active = true
+            order by q.id
+            """)
+    List<Question> findActiveWithAnswersByQuizId(@Param("quizId") UUID quizId);
 }
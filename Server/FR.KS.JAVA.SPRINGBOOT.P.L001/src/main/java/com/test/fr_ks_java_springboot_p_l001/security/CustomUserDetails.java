@@ -21,8 +21,8 @@ public class CustomUserDetails implements UserDetails {
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return user.getRoles().stream()
-                .map(Role::getName) // RoleEnum
-                .map(roleEnum -> new SimpleGrantedAuthority("ROLE_" + roleEnum.name()))
+                .map(Role::getName) // RoleEnum, already prefixed (ROLE_ADMIN)
+                .map(roleEnum -> new SimpleGrantedAuthority(roleEnum.name()))
                 .toList();
     }
 
@@ -0,0 +1,32 @@
+package com.test.fr_ks_java_springboot_p_l001.security;
+
+import com.test.fr_ks_java_springboot_p_l001.entity.RoleEnum;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Authenticated user rebuilt from the claims of a verified access token, the user row is not loaded.
+ * Role names are stored with their prefix (ROLE_ADMIN), as {@code hasRole('ADMIN')} expects.
+ */
+public record JwtPrincipal(UUID userId, String email, Set<String> roles) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public boolean isAdmin() {
+        return roles.contains(RoleEnum.ROLE_ADMIN.name());
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return roles.stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+}
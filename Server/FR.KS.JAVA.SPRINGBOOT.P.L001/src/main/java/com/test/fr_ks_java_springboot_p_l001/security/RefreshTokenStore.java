@@ -0,0 +1,149 @@
+package com.test.fr_ks_java_springboot_p_l001.security;
+
+import com.test.fr_ks_java_springboot_p_l001.entity.RefreshToken;
+import com.test.fr_ks_java_springboot_p_l001.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-side record of issued refresh tokens, looked up by the SHA-256 digest of the token.
+ * <p>
+ * A token can be exchanged once: {@link #rotate} marks it used with a single conditional update,
+ * so of two concurrent refreshes with the same token only one wins. Presenting a token that was
+ * already used or revoked means it leaked, and the whole family (every token descended from the
+ * same login) is revoked. Expired rows are deleted every {@code purge-interval-minutes}.
+ */
+@Slf4j
+@Component
+public class RefreshTokenStore implements SmartLifecycle {
+
+    /**
+     * Family and owner of a token that was just exchanged.
+     */
+    public record Rotation(UUID familyId, UUID userId) {}
+
+    private final RefreshTokenRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final long purgeIntervalMinutes;
+    private final Counter reuseCounter;
+
+    private ScheduledExecutorService purger;
+
+    public RefreshTokenStore(
+            RefreshTokenRepository repository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${security.refresh-token.purge-interval-minutes:60}") long purgeIntervalMinutes
+    ) {
+        this.repository = repository;
+        // own transactions: a revocation must commit even when the caller's transaction rolls back
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.purgeIntervalMinutes = purgeIntervalMinutes;
+        this.reuseCounter = Counter.builder("security.refresh-token.reused")
+                .description("Refresh tokens presented again after rotation; their family was revoked")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a newly issued token; {@code familyId} is new for a login, inherited on rotation.
+     */
+    @Transactional
+    public void issue(String token, UUID familyId, UUID userId, Instant expiresAt) {
+        RefreshToken t = new RefreshToken();
+        t.setTokenHash(digest(token));
+        t.setFamilyId(familyId);
+        t.setUserId(userId);
+        t.setExpiresAt(expiresAt);
+        repository.save(t);
+    }
+
+    /**
+     * Marks the token used so it cannot be exchanged again.
+     * <p>
+     * Runs in the caller's transaction. On reuse the family is revoked in its own transaction,
+     * so the revocation survives the caller rolling back on the exception.
+     *
+     * @throws IllegalArgumentException if the token is unknown, expired, revoked or already used
+     */
+    @Transactional
+    public Rotation rotate(String token) {
+        byte[] hash = digest(token);
+        RefreshToken stored = repository.findByTokenHash(hash)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+
+        Instant now = Instant.now();
+        if (repository.consume(hash, now) == 1) {
+            return new Rotation(stored.getFamilyId(), stored.getUserId());
+        }
+
+        // not expired, so already used or revoked, possibly by a concurrent refresh that won the update
+        if (stored.getExpiresAt().isAfter(now)) {
+            Integer revoked = transactionTemplate.execute(s -> repository.revokeFamily(stored.getFamilyId(), now));
+            reuseCounter.increment();
+            log.warn("Refresh token reused for user {}, revoked {} tokens of family {}",
+                    stored.getUserId(), revoked, stored.getFamilyId());
+        }
+        throw new IllegalArgumentException("Invalid refresh token");
+    }
+
+    @Override
+    public void start() {
+        purger = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "refresh-token-purge");
+            t.setDaemon(true);
+            return t;
+        });
+        purger.scheduleWithFixedDelay(this::purge, purgeIntervalMinutes, purgeIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public void stop() {
+        if (purger != null) {
+            purger.shutdownNow();
+            purger = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return purger != null;
+    }
+
+    private void purge() {
+        // an exception escaping here would cancel the schedule
+        try {
+            Integer deleted = transactionTemplate.execute(s -> repository.deleteExpired(Instant.now()));
+            if (deleted != null && deleted > 0) {
+                log.info("Purged {} expired refresh tokens", deleted);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Refresh token purge failed, retrying next interval: {}", ex.getMessage());
+        }
+    }
+
+    private static byte[] digest(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.test.fr_ks_java_springboot_p_l001.security;
+
+import com.test.fr_ks_java_springboot_p_l001.entity.TokenRevocation;
+import com.test.fr_ks_java_springboot_p_l001.repository.TokenRevocationRepository;
+import com.test.fr_ks_java_springboot_p_l001.service.UserChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user "not before" timestamps of access tokens, checked on every authenticated request.
+ * <p>
+ * The timestamps live in {@code token_revocations} and are mirrored in memory behind a Bloom filter
+ * of the user ids, so a request from a user who was never revoked, nearly all of them, costs a few
+ * bit reads and no map or database lookup. The mirror is loaded at startup, updated right after a
+ * local revocation commits and polled every {@code poll-interval-seconds} for revocations made
+ * by other instances. A timestamp older than the access token lifetime matches no live token:
+ * it is dropped from memory and deleted, and the filter is rebuilt without it.
+ */
+@Slf4j
+@Component
+public class TokenRevocationList implements SmartLifecycle {
+
+    // a row whose transaction commits after a poll carries an updated_at older than that poll
+    private static final Duration POLL_OVERLAP = Duration.ofSeconds(30);
+
+    private final TokenRevocationRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration accessTtl;
+    private final long pollIntervalSeconds;
+    private final int expectedEntries;
+    private final Map<UUID, Instant> notBefore = new ConcurrentHashMap<>();
+    private final Counter rejected;
+
+    // replaced, never cleared: readers always see a filter covering every id in notBefore
+    private volatile UserIdBloomFilter filter;
+    private int filterCapacity;
+    private Instant watermark = Instant.EPOCH;
+
+    private ScheduledExecutorService poller;
+
+    public TokenRevocationList(
+            TokenRevocationRepository repository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.access-exp-ms}") long accessExpMs,
+            @Value("${security.token-revocation.poll-interval-seconds:5}") long pollIntervalSeconds,
+            @Value("${security.token-revocation.expected-entries:10000}") int expectedEntries
+    ) {
+        this.repository = repository;
+        // also used from after-commit listeners, where the committed transaction is still bound
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.accessTtl = Duration.ofMillis(accessExpMs);
+        this.pollIntervalSeconds = pollIntervalSeconds;
+        this.expectedEntries = expectedEntries;
+        this.filterCapacity = expectedEntries;
+        this.filter = new UserIdBloomFilter(expectedEntries);
+
+        Gauge.builder("security.token-revocation.entries", notBefore, Map::size)
+                .description("Users whose older access tokens are refused")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("security.token-revocation.rejected")
+                .description("Access tokens refused because they were issued before a revocation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return true if the user's tokens issued at {@code issuedAt} have been revoked
+     */
+    public boolean isRevoked(UUID userId, Instant issuedAt) {
+        if (!filter.mightContain(userId)) {
+            return false;
+        }
+        Instant revokedAt = notBefore.get(userId);
+        if (revokedAt == null) {
+            // false positive of the filter
+            return false;
+        }
+        // iat has whole seconds: a token issued in the same second as the revocation is refused too
+        boolean revoked = issuedAt == null || issuedAt.getEpochSecond() <= revokedAt.getEpochSecond();
+        if (revoked) {
+            rejected.increment();
+        }
+        return revoked;
+    }
+
+    /**
+     * Refuses every access token of the user issued until now.
+     * Written in the caller's transaction; applied in memory once it committed,
+     * through the {@link UserChangedEvent} the caller publishes.
+     */
+    @Transactional
+    public void revoke(UUID userId) {
+        TokenRevocation r = repository.findById(userId).orElseGet(() -> {
+            TokenRevocation created = new TokenRevocation();
+            created.setUserId(userId);
+            return created;
+        });
+        r.setNotBefore(Instant.now());
+        repository.save(r);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        poll();
+    }
+
+    @Override
+    public void start() {
+        load();
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "token-revocation-poll");
+            t.setDaemon(true);
+            return t;
+        });
+        poller.scheduleWithFixedDelay(this::poll, pollIntervalSeconds, pollIntervalSeconds, TimeUnit.SECONDS);
+        long purgeMinutes = Math.max(1, accessTtl.toMinutes());
+        poller.scheduleWithFixedDelay(this::purge, purgeMinutes, purgeMinutes, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return poller != null;
+    }
+
+    private synchronized void load() {
+        Instant now = Instant.now();
+        List<TokenRevocation> rows = transactionTemplate.execute(s ->
+                repository.findByNotBeforeAfter(now.minus(accessTtl)));
+        rows.forEach(r -> notBefore.put(r.getUserId(), r.getNotBefore()));
+        rebuildFilter();
+        watermark = now;
+        log.info("Loaded {} token revocation(s)", rows.size());
+    }
+
+    private synchronized void poll() {
+        // an exception escaping here would cancel the schedule
+        try {
+            Instant polledAt = Instant.now();
+            Instant since = watermark.minus(POLL_OVERLAP);
+            List<TokenRevocation> rows = transactionTemplate.execute(s -> repository.findByUpdatedAtAfter(since));
+            Instant cutoff = polledAt.minus(accessTtl);
+            for (TokenRevocation r : rows) {
+                if (r.getNotBefore().isAfter(cutoff)) {
+                    // filter first: a reader that finds the map entry must also pass the filter
+                    filter.add(r.getUserId());
+                    notBefore.merge(r.getUserId(), r.getNotBefore(), (a, b) -> a.isAfter(b) ? a : b);
+                }
+            }
+            watermark = polledAt;
+            if (notBefore.size() > filterCapacity) {
+                rebuildFilter();
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Token revocation poll failed, retrying next interval: {}", ex.getMessage());
+        }
+    }
+
+    private synchronized void purge() {
+        try {
+            Instant cutoff = Instant.now().minus(accessTtl);
+            Integer deleted = transactionTemplate.execute(s -> repository.deleteExpired(cutoff));
+            if (notBefore.values().removeIf(t -> t.isBefore(cutoff))) {
+                rebuildFilter();
+            }
+            if (deleted != null && deleted > 0) {
+                log.info("Purged {} expired token revocation(s)", deleted);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Token revocation purge failed, retrying next interval: {}", ex.getMessage());
+        }
+    }
+
+    // the only way to remove ids from a Bloom filter; keeps ~1% false positives as the set grows
+    private void rebuildFilter() {
+        int capacity = Math.max(expectedEntries, notBefore.size() * 2);
+        UserIdBloomFilter rebuilt = new UserIdBloomFilter(capacity);
+        notBefore.keySet().forEach(rebuilt::add);
+        filterCapacity = capacity;
+        filter = rebuilt;
+    }
+}
@@ -0,0 +1,63 @@
+package com.test.fr_ks_java_springboot_p_l001.security;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over user ids, sized for about 1% false positives at {@code capacity} ids.
+ * <p>
+ * {@link #mightContain} only reads, so any number of threads can query while one thread adds.
+ * Ids cannot be removed: the owner builds a new filter and swaps it in.
+ */
+final class UserIdBloomFilter {
+
+    // k = 7 and ~9.6 bits per id give ~1% false positives at capacity
+    private static final int HASHES = 7;
+    private static final double BITS_PER_ID = 9.6;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+
+    UserIdBloomFilter(int capacity) {
+        long bits = Math.max(64, (long) Math.ceil(Math.max(1, capacity) * BITS_PER_ID));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE, (bits + 63) >>> 6);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount << 6;
+    }
+
+    void add(UUID id) {
+        long h1 = mix(id.getMostSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits() ^ h1) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+            } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    boolean mightContain(UUID id) {
+        long h1 = mix(id.getMostSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits() ^ h1) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // finalizer of MurmurHash3, spreads every input bit over the whole word
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,13 +1,13 @@
 package com.test.fr_ks_java_springboot_p_l001.security.jwt;
 
-import com.test.fr_ks_java_springboot_p_l001.security.CustomUserDetailsService;
+import com.test.fr_ks_java_springboot_p_l001.security.JwtPrincipal;
+import com.test.fr_ks_java_springboot_p_l001.security.TokenRevocationList;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -18,7 +18,7 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtProvider;
-    private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationList revocationList;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -31,22 +31,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7);
 
-            if (jwtProvider.validate(token)) {
-                String type = jwtProvider.getType(token);
-
-                // Chỉ accept access token cho request thường
-                if ("access".equals(type)) {
-                    String email = jwtProvider.getSubject(token);
-
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-
-                    UsernamePasswordAuthenticationToken auth =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails, null, userDetails.getAuthorities());
-
-                    SecurityContextHolder.getContext().setAuthentication(auth);
-                }
-            }
+            // one signature check per request, the claims come back with it
+            jwtProvider.parse(token)
+                    // Chỉ accept access token cho request thường
+                    .filter(JwtClaims::isAccess)
+                    // tokens issued before the user id claim existed are refused, the client logs in again
+                    .filter(claims -> claims.userId() != null)
+                    // in memory, no query: deactivated users and changed roles or passwords are revoked
+                    .filter(claims -> !revocationList.isRevoked(claims.userId(), claims.issuedAt()))
+                    .ifPresent(claims -> {
+                        // principal from the claims, the user row is not loaded
+                        JwtPrincipal principal = new JwtPrincipal(claims.userId(), claims.subject(), claims.roles());
+
+                        UsernamePasswordAuthenticationToken auth =
+                                new UsernamePasswordAuthenticationToken(
+                                        principal, null, principal.authorities());
+
+                        SecurityContextHolder.getContext().setAuthentication(auth);
+                    });
         }
 
         filterChain.doFilter(request, response);
@@ -0,0 +1,32 @@
+package com.test.fr_ks_java_springboot_p_l001.security.jwt;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Claims of a token whose signature and expiry have been verified.
+ *
+ * @param subject   user email
+ * @param userId    user id, null for refresh tokens
+ * @param type      "access" or "refresh"
+ * @param issuedAt  {@code iat}, whole seconds
+ * @param roles     role names at the time the token was issued, empty for refresh tokens
+ */
+public record JwtClaims(
+        String subject,
+        UUID userId,
+        String type,
+        Instant issuedAt,
+        Instant expiresAt,
+        Set<String> roles
+) {
+
+    public boolean isAccess() {
+        return JwtTokenProvider.ACCESS.equals(type);
+    }
+
+    public boolean isRefresh() {
+        return JwtTokenProvider.REFRESH.equals(type);
+    }
+}
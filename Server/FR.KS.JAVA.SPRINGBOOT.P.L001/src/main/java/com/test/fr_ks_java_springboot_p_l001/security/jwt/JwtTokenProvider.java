@@ -7,12 +7,28 @@ import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtTokenProvider {
 
+    static final String ACCESS = "access";
+    static final String REFRESH = "refresh";
+
+    private static final String TYPE_CLAIM = "type";
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLES_CLAIM = "roles";
+
     private final Key key;
+    // immutable and thread-safe, built once instead of per call
+    private final JwtParser parser;
     private final long accessExpMs;
     private final long refreshExpMs;
 
@@ -22,53 +38,81 @@ public class JwtTokenProvider {
             @Value("${jwt.refresh-exp-ms}") long refreshExpMs
     ) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
         this.accessExpMs = accessExpMs;
         this.refreshExpMs = refreshExpMs;
     }
 
-    public String generateAccessToken(String subject) {
-        return buildToken(subject, accessExpMs, "access");
+    /**
+     * Access tokens carry the user id and roles, so a request is authenticated from the token alone.
+     */
+    public String generateAccessToken(String subject, UUID userId, Collection<String> roles) {
+        return buildToken(subject, accessExpMs, ACCESS, userId, roles);
+    }
+
+    /**
+     * Lifetime of a refresh token, for the server-side record of it.
+     */
+    public Duration refreshTtl() {
+        return Duration.ofMillis(refreshExpMs);
     }
 
     public String generateRefreshToken(String subject) {
-        return buildToken(subject, refreshExpMs, "refresh");
+        return buildToken(subject, refreshExpMs, REFRESH, null, null);
     }
 
-    private String buildToken(String subject, long expMs, String type) {
+    private String buildToken(String subject, long expMs, String type, UUID userId, Collection<String> roles) {
         Date now = new Date();
         Date exp = new Date(now.getTime() + expMs);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(subject)
-                .claim("type", type)
+                // unique even for two tokens of the same user issued in the same second
+                .setId(UUID.randomUUID().toString())
+                .claim(TYPE_CLAIM, type)
                 .setIssuedAt(now)
-                .setExpiration(exp)
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
+                .setExpiration(exp);
+        if (userId != null) {
+            builder.claim(USER_ID_CLAIM, userId.toString());
+        }
+        if (roles != null) {
+            builder.claim(ROLES_CLAIM, List.copyOf(roles));
+        }
+        return builder.signWith(key, SignatureAlgorithm.HS256).compact();
     }
 
-    public boolean validate(String token) {
+    /**
+     * Verifies the signature and expiry once and returns every claim the callers need.
+     *
+     * @return empty if the token is malformed, forged or expired
+     */
+    public Optional<JwtClaims> parse(String token) {
+        Claims body;
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
+            body = parser.parseClaimsJws(token).getBody();
         } catch (JwtException | IllegalArgumentException ex) {
-            return false;
+            return Optional.empty();
         }
-    }
 
-    public String getSubject(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key).build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
-    }
+        UUID userId;
+        try {
+            String uid = body.get(USER_ID_CLAIM, String.class);
+            userId = uid != null ? UUID.fromString(uid) : null;
+        } catch (IllegalArgumentException | RequiredTypeException ex) {
+            return Optional.empty();
+        }
 
-    public String getType(String token) {
-        return (String) Jwts.parserBuilder()
-                .setSigningKey(key).build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("type");
+        Set<String> roles = Set.of();
+        if (body.get(ROLES_CLAIM) instanceof Collection<?> names) {
+            roles = names.stream().map(String::valueOf).collect(Collectors.toUnmodifiableSet());
+        }
+        return Optional.of(new JwtClaims(
+                body.getSubject(),
+                userId,
+                body.get(TYPE_CLAIM, String.class),
+                body.getIssuedAt() != null ? body.getIssuedAt().toInstant() : null,
+                body.getExpiration() != null ? body.getExpiration().toInstant() : null,
+                roles
+        ));
     }
 }
@@ -0,0 +1,63 @@
+package com.test.fr_ks_java_springboot_p_l001.security.ratelimit;
+
+import com.test.fr_ks_java_springboot_p_l001.exception.ApiError;
+import com.test.fr_ks_java_springboot_p_l001.exception.TooManyRequestsException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Per-IP limit of the authentication endpoints, applied before the body is read.
+ * <p>
+ * The address is {@link HttpServletRequest#getRemoteAddr()}: behind a reverse proxy, set
+ * {@code server.forward-headers-strategy} so it is the client's and not the proxy's.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private final AuthRateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (HttpMethod.POST.matches(request.getMethod())) {
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+            for (AuthRateLimiter.Endpoint endpoint : AuthRateLimiter.Endpoint.values()) {
+                if (endpoint.path().equals(path)) {
+                    try {
+                        rateLimiter.checkClient(endpoint, request.getRemoteAddr());
+                    } catch (TooManyRequestsException ex) {
+                        // outside the DispatcherServlet: same body as GlobalExceptionHandler
+                        HttpStatus st = HttpStatus.TOO_MANY_REQUESTS;
+                        response.setStatus(st.value());
+                        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+                        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                        objectMapper.writeValue(response.getOutputStream(), new ApiError(
+                                Instant.now(), st.value(), st.getReasonPhrase(), ex.getMessage(), request.getRequestURI()));
+                        return;
+                    }
+                    break;
+                }
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,121 @@
+package com.test.fr_ks_java_springboot_p_l001.security.ratelimit;
+
+import com.test.fr_ks_java_springboot_p_l001.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket limits of the public authentication endpoints, per client IP and per email.
+ * <p>
+ * The IP limit is applied by {@link AuthRateLimitFilter} before the request body is read; the email
+ * limit by the service once the body is parsed, so a credential-stuffing burst spread over many
+ * emails is stopped at its source and a burst spread over many IPs at its target, both before any
+ * BCrypt work. Each limit is configured as {@code security.rate-limit.<endpoint>.<ip|email>=N/period};
+ * a blank value disables it.
+ */
+@Slf4j
+@Component
+public class AuthRateLimiter {
+
+    public enum Endpoint {
+        LOGIN("/api/v1/auth/login"),
+        REGISTER("/api/v1/auth/register"),
+        REFRESH("/api/v1/auth/refresh");
+
+        private final String path;
+
+        Endpoint(String path) {
+            this.path = path;
+        }
+
+        public String path() {
+            return path;
+        }
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private record Limiter(TokenBucketMap buckets, Counter rejected) {}
+
+    private final boolean enabled;
+    private final Map<Endpoint, Limiter> byIp = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Limiter> byEmail = new EnumMap<>(Endpoint.class);
+
+    public AuthRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${security.rate-limit.enabled:true}") boolean enabled,
+            @Value("${security.rate-limit.max-entries:100000}") int maxEntries,
+            @Value("${security.rate-limit.login.ip:30/1m}") String loginIp,
+            @Value("${security.rate-limit.login.email:10/5m}") String loginEmail,
+            @Value("${security.rate-limit.register.ip:10/1h}") String registerIp,
+            @Value("${security.rate-limit.register.email:3/1h}") String registerEmail,
+            @Value("${security.rate-limit.refresh.ip:60/1m}") String refreshIp
+    ) {
+        this.enabled = enabled;
+        register(meterRegistry, maxEntries, byIp, "ip", Endpoint.LOGIN, loginIp);
+        register(meterRegistry, maxEntries, byEmail, "email", Endpoint.LOGIN, loginEmail);
+        register(meterRegistry, maxEntries, byIp, "ip", Endpoint.REGISTER, registerIp);
+        register(meterRegistry, maxEntries, byEmail, "email", Endpoint.REGISTER, registerEmail);
+        register(meterRegistry, maxEntries, byIp, "ip", Endpoint.REFRESH, refreshIp);
+    }
+
+    private static void register(MeterRegistry meterRegistry, int maxEntries, Map<Endpoint, Limiter> limiters,
+                                 String keyType, Endpoint endpoint, String spec) {
+        RateLimit limit = RateLimit.parse(spec);
+        if (limit == null) {
+            return;
+        }
+        TokenBucketMap buckets = new TokenBucketMap(limit, maxEntries);
+        Gauge.builder("security.rate-limit.buckets", buckets, TokenBucketMap::size)
+                .tag("endpoint", endpoint.tag())
+                .tag("key", keyType)
+                .description("Rate-limit buckets held in memory")
+                .register(meterRegistry);
+        Counter rejected = Counter.builder("security.rate-limit.rejected")
+                .tag("endpoint", endpoint.tag())
+                .tag("key", keyType)
+                .description("Authentication requests refused with 429 by a rate limit")
+                .register(meterRegistry);
+        limiters.put(endpoint, new Limiter(buckets, rejected));
+        log.info("Rate limit of {} per {}: {}", endpoint.path(), keyType, limit);
+    }
+
+    /**
+     * @throws TooManyRequestsException if the client IP has used up its bucket for the endpoint
+     */
+    public void checkClient(Endpoint endpoint, String ip) {
+        check(byIp.get(endpoint), ip, "Too many requests from this address");
+    }
+
+    /**
+     * @throws TooManyRequestsException if the email has used up its bucket for the endpoint
+     */
+    public void checkEmail(Endpoint endpoint, String email) {
+        if (email != null) {
+            check(byEmail.get(endpoint), email.trim().toLowerCase(Locale.ROOT), "Too many attempts for this account");
+        }
+    }
+
+    private void check(Limiter limiter, String key, String message) {
+        if (!enabled || limiter == null || key == null) {
+            return;
+        }
+        long waitNanos = limiter.buckets().tryAcquire(key, System.nanoTime());
+        if (waitNanos > 0) {
+            limiter.rejected().increment();
+            throw new TooManyRequestsException(message,
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.test.fr_ks_java_springboot_p_l001.security.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * {@code permits} requests per {@code period}, allowed as a burst and refilled continuously.
+ *
+ * @param permits bucket capacity, and tokens added per period
+ */
+public record RateLimit(int permits, Duration period) {
+
+    public RateLimit {
+        if (permits <= 0 || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Invalid rate limit: " + permits + "/" + period);
+        }
+    }
+
+    /**
+     * Parses {@code "<permits>/<amount><s|m|h>"}, e.g. {@code "10/1m"}.
+     *
+     * @return null for a blank spec: no limit
+     */
+    public static RateLimit parse(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return null;
+        }
+        String s = spec.trim();
+        int slash = s.indexOf('/');
+        if (slash <= 0 || slash == s.length() - 1) {
+            throw new IllegalArgumentException("Invalid rate limit '" + spec + "', expected e.g. 10/1m");
+        }
+        try {
+            int permits = Integer.parseInt(s.substring(0, slash).trim());
+            String period = s.substring(slash + 1).trim();
+            long amount = Long.parseLong(period.substring(0, period.length() - 1));
+            Duration unit = switch (period.charAt(period.length() - 1)) {
+                case 's' -> Duration.ofSeconds(1);
+                case 'm' -> Duration.ofMinutes(1);
+                case 'h' -> Duration.ofHours(1);
+                default -> throw new IllegalArgumentException("Unknown unit in rate limit '" + spec + "'");
+            };
+            return new RateLimit(permits, unit.multipliedBy(amount));
+        } catch (NumberFormatException | StringIndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Invalid rate limit '" + spec + "', expected e.g. 10/1m", ex);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return permits + "/" + period;
+    }
+}
@@ -0,0 +1,115 @@
+package com.test.fr_ks_java_springboot_p_l001.security.ratelimit;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Token buckets of one {@link RateLimit}, keyed by client (IP address, email...).
+ * <p>
+ * The keys are spread over a fixed number of stripes, each an access-ordered map behind its own
+ * lock, so requests for different clients rarely contend. A stripe holds at most
+ * {@code maxEntries / STRIPES} buckets. Only a bucket that has fully refilled is ever dropped, since
+ * it is no different from a new one; a drained bucket is kept, so a flood of distinct keys cannot
+ * push a limited client out of its stripe and hand it a fresh bucket. A new key arriving at a stripe
+ * full of live buckets is limited until the eldest of them has refilled. Memory stays bounded
+ * without any background sweeper.
+ */
+final class TokenBucketMap {
+
+    private static final int STRIPES = 64;
+
+    private static final class Bucket {
+        double tokens;
+        long updatedAt;
+
+        Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, Bucket> {
+
+        Stripe() {
+            super(16, 0.75f, true);
+        }
+    }
+
+    private final int permits;
+    private final long periodNanos;
+    private final int maxPerStripe;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    TokenBucketMap(RateLimit limit, int maxEntries) {
+        this.permits = limit.permits();
+        this.periodNanos = limit.period().toNanos();
+        this.maxPerStripe = Math.max(1, maxEntries / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Takes one token from the key's bucket.
+     *
+     * @return 0 if a token was taken, otherwise nanoseconds until one is available
+     */
+    long tryAcquire(String key, long nowNanos) {
+        int h = key.hashCode();
+        Stripe stripe = stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+        synchronized (stripe) {
+            Bucket b = stripe.get(key);
+            if (b == null) {
+                long wait = dropRefilled(stripe, nowNanos);
+                if (wait > 0) {
+                    return wait;
+                }
+                // a new bucket is full: take from it right away
+                stripe.put(key, new Bucket(permits - 1, nowNanos));
+                return 0;
+            }
+            b.tokens = refill(b, nowNanos);
+            b.updatedAt = nowNanos;
+            if (b.tokens >= 1) {
+                b.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - b.tokens) * periodNanos / permits);
+        }
+    }
+
+    /**
+     * Drops the least recently used buckets that have fully refilled.
+     *
+     * @return 0 if the stripe has room for a new bucket, otherwise nanoseconds until its eldest has refilled
+     */
+    private long dropRefilled(Stripe stripe, long nowNanos) {
+        Iterator<Bucket> it = stripe.values().iterator();
+        while (it.hasNext()) {
+            Bucket eldest = it.next();
+            double tokens = refill(eldest, nowNanos);
+            if (tokens < permits) {
+                return stripe.size() < maxPerStripe
+                        ? 0
+                        : (long) Math.ceil((permits - tokens) * periodNanos / permits);
+            }
+            it.remove();
+        }
+        return 0;
+    }
+
+    private double refill(Bucket b, long nowNanos) {
+        double refilled = (double) (nowNanos - b.updatedAt) * permits / periodNanos;
+        return Math.min(permits, b.tokens + refilled);
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,10 @@
+package com.test.fr_ks_java_springboot_p_l001.service;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published when the grading of a question may have changed (correct answers, type or score),
+ * so submissions already stored for its quizzes need to be regraded.
+ */
+public record AnswerKeyChangedEvent(Set<UUID> quizIds) {}
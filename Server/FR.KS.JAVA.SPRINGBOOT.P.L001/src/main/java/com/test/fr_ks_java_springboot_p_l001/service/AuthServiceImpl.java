@@ -6,16 +6,22 @@ import com.test.fr_ks_java_springboot_p_l001.entity.RoleEnum;
 import com.test.fr_ks_java_springboot_p_l001.entity.User;
 import com.test.fr_ks_java_springboot_p_l001.repository.RoleRepository;
 import com.test.fr_ks_java_springboot_p_l001.repository.UserRepository;
+import com.test.fr_ks_java_springboot_p_l001.security.RefreshTokenStore;
+import com.test.fr_ks_java_springboot_p_l001.security.jwt.JwtClaims;
 import com.test.fr_ks_java_springboot_p_l001.security.jwt.JwtTokenProvider;
+import com.test.fr_ks_java_springboot_p_l001.security.ratelimit.AuthRateLimiter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,9 +34,14 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtProvider;
+    private final RefreshTokenStore refreshTokenStore;
+    private final AuthRateLimiter rateLimiter;
 
+    // BCrypt may wait for the hashing executor: no transaction, so no pooled connection is held meanwhile
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void register(RegisterRequest req) {
+        rateLimiter.checkEmail(AuthRateLimiter.Endpoint.REGISTER, req.email());
 
         if (userRepository.existsByEmailIgnoreCase(req.email())) {
             throw new IllegalArgumentException("Email already exists");
@@ -51,18 +62,28 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse login(LoginRequest req) {
+        // before BCrypt: a burst against one account is refused without hashing
+        rateLimiter.checkEmail(AuthRateLimiter.Endpoint.LOGIN, req.email());
+
         Authentication auth = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(req.email(), req.password())
         );
 
-        String accessToken = jwtProvider.generateAccessToken(auth.getName());
-        String refreshToken = jwtProvider.generateRefreshToken(auth.getName());
-
         // Lấy user từ DB
         User user = userRepository.findByEmailIgnoreCaseAndActiveTrue(auth.getName())
                 .orElseThrow(() -> new IllegalStateException("User not found"));
 
+        // Lấy danh sách role name
+        Set<String> roles = user.getRoles().stream()
+                .map(r -> r.getName().name())
+                .collect(Collectors.toSet());
+
+        String accessToken = jwtProvider.generateAccessToken(auth.getName(), user.getId(), roles);
+        // a login starts a new refresh token family
+        String refreshToken = issueRefreshToken(user, UUID.randomUUID());
+
         // Map User -> UserResponse
         UserResponse userResponse = new UserResponse(
                 user.getId(),
@@ -76,11 +97,6 @@ public class AuthServiceImpl implements AuthService {
                 user.getUpdatedAt()
         );
 
-        // Lấy danh sách role name
-        Set<String> roles = user.getRoles().stream()
-                .map(r -> r.getName().name())
-                .collect(Collectors.toSet());
-
         return new AuthResponse(
                 accessToken,
                 refreshToken,
@@ -90,32 +106,41 @@ public class AuthServiceImpl implements AuthService {
 
     }
 
+    // the old token is consumed and the new one stored in one transaction
     @Override
     public AuthResponse refresh(RefreshRequest req) {
         String refreshToken = req.refreshToken();
 
-        // 1. Validate token
-        if (!jwtProvider.validate(refreshToken)) {
-            throw new IllegalArgumentException("Invalid refresh token");
-        }
+        // 1. Validate token (signature + expiry, parsed once)
+        JwtClaims claims = jwtProvider.parse(refreshToken)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
 
         // 2. Check token type
-        if (!"refresh".equals(jwtProvider.getType(refreshToken))) {
+        if (!claims.isRefresh()) {
             throw new IllegalArgumentException("Token is not refresh token");
         }
 
-        // 3. Get subject (email)
-        String email = jwtProvider.getSubject(refreshToken);
+        // 3. Consume the stored token (once only; reuse of a used token revokes its family)
+        RefreshTokenStore.Rotation rotation = refreshTokenStore.rotate(refreshToken);
+
+        // 4. Get subject (email)
+        String email = claims.subject();
 
-        // 4. Check user still exists & active
+        // 5. Check user still exists & active
         User user = userRepository.findByEmailIgnoreCaseAndActiveTrue(email)
+                .filter(u -> u.getId().equals(rotation.userId()))
                 .orElseThrow(() -> new IllegalArgumentException("User not found or inactive"));
 
-        // 5. Generate NEW tokens (rotate refresh token)
-        String newAccessToken = jwtProvider.generateAccessToken(email);
-        String newRefreshToken = jwtProvider.generateRefreshToken(email);
+        // 6. Extract role names
+        Set<String> roles = user.getRoles().stream()
+                .map(r -> r.getName().name())
+                .collect(Collectors.toSet());
+
+        // 7. Generate NEW tokens (rotate refresh token, same family)
+        String newAccessToken = jwtProvider.generateAccessToken(email, user.getId(), roles);
+        String newRefreshToken = issueRefreshToken(user, rotation.familyId());
 
-        // 6. Map User → UserResponse
+        // 8. Map User → UserResponse
         UserResponse userResponse = new UserResponse(
                 user.getId(),
                 user.getEmail(),
@@ -128,12 +153,7 @@ public class AuthServiceImpl implements AuthService {
                 user.getUpdatedAt()
         );
 
-        // 7. Extract role names
-        Set<String> roles = user.getRoles().stream()
-                .map(r -> r.getName().name())
-                .collect(Collectors.toSet());
-
-        // 8. Return AuthResponse
+        // 9. Return AuthResponse
         return new AuthResponse(
                 newAccessToken,
                 newRefreshToken,
@@ -141,4 +161,12 @@ public class AuthServiceImpl implements AuthService {
                 roles
         );
     }
+
+    private String issueRefreshToken(User user, UUID familyId) {
+        // the stored row expires no later than the token itself
+        Instant expiresAt = Instant.now().plus(jwtProvider.refreshTtl());
+        String token = jwtProvider.generateRefreshToken(user.getEmail());
+        refreshTokenStore.issue(token, familyId, user.getId(), expiresAt);
+        return token;
+    }
 }
@@ -0,0 +1,15 @@
+package com.test.fr_ks_java_springboot_p_l001.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+public interface BulkGradingService {
+
+    /**
+     * Grades an NDJSON stream of answer sheets for one quiz.
+     * The answer key is resolved eagerly, so an unknown quiz fails before the response starts.
+     */
+    StreamingResponseBody grade(UUID quizId, InputStream sheets);
+}
@@ -0,0 +1,205 @@
+package com.test.fr_ks_java_springboot_p_l001.service;
+
+import com.test.fr_ks_java_springboot_p_l001.dto.submissions.BulkGradeResult;
+import com.test.fr_ks_java_springboot_p_l001.dto.submissions.BulkGradeSummary;
+import com.test.fr_ks_java_springboot_p_l001.dto.submissions.ExamSubmitRequest;
+import com.test.fr_ks_java_springboot_p_l001.grading.AnswerKey;
+import com.test.fr_ks_java_springboot_p_l001.grading.AnswerKeyCache;
+import com.test.fr_ks_java_springboot_p_l001.grading.BitsetGrader;
+import com.test.fr_ks_java_springboot_p_l001.grading.GradeResult;
+import com.test.fr_ks_java_springboot_p_l001.grading.ResultCodec;
+import com.test.fr_ks_java_springboot_p_l001.repository.QuizSubmissionBatchRepository;
+import com.test.fr_ks_java_springboot_p_l001.repository.UserRepository;
+import com.test.fr_ks_java_springboot_p_l001.submission.PendingSubmission;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkGradingServiceImpl implements BulkGradingService {
+
+    private final AnswerKeyCache answerKeyCache;
+    private final UserRepository userRepository;
+    private final QuizSubmissionBatchRepository batchRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    // shared by all bulk requests so concurrent uploads cannot oversubscribe the CPUs
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    @Value("${exam.bulk-grade.chunk-size:2000}")
+    private int chunkSize;
+
+    private record Sheet(long line, String json) {}
+
+    private record Graded(BulkGradeResult result, PendingSubmission pending) {}
+
+    @Override
+    public StreamingResponseBody grade(UUID quizId, InputStream sheets) {
+        AnswerKey key = answerKeyCache.get(quizId);
+
+        if (key.questions().isEmpty()) {
+            throw new IllegalArgumentException("Quiz has no questions");
+        }
+        return out -> stream(key, sheets, out);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    private void stream(AnswerKey key, InputStream sheets, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        long total = 0;
+        long graded = 0;
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(sheets, StandardCharsets.UTF_8));
+        List<Sheet> chunk = new ArrayList<>(chunkSize);
+        long lineNo = 0;
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(new Sheet(lineNo, line));
+            if (chunk.size() == chunkSize) {
+                graded += flushChunk(key, chunk, out);
+                total += chunk.size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            graded += flushChunk(key, chunk, out);
+            total += chunk.size();
+        }
+
+        long elapsedNanos = Math.max(System.nanoTime() - start, 1);
+        double sheetsPerSecond = total * 1_000_000_000.0 / elapsedNanos;
+        writeLine(out, new BulkGradeSummary(key.quizId(), total, graded, total - graded,
+                elapsedNanos / 1_000_000, sheetsPerSecond));
+        out.flush();
+
+        log.info("Bulk graded quiz {}: {}/{} sheets in {} ms ({} sheets/s)",
+                key.quizId(), graded, total, elapsedNanos / 1_000_000, Math.round(sheetsPerSecond));
+    }
+
+    /**
+     * Grades one chunk on the pool, saves the valid sheets in a single JDBC batch and
+     * writes one result line per sheet. Returns the number of saved sheets.
+     */
+    private int flushChunk(AnswerKey key, List<Sheet> chunk, OutputStream out) throws IOException {
+        Graded[] graded = new Graded[chunk.size()];
+
+        // parallel stream inside the pool runs on the pool's workers, not the common pool
+        pool.submit(() -> IntStream.range(0, graded.length).parallel()
+                .forEach(i -> graded[i] = gradeSheet(key, chunk.get(i))))
+                .join();
+
+        // one lookup per chunk instead of one per sheet
+        Set<UUID> userIds = new HashSet<>();
+        for (Graded g : graded) {
+            if (g.pending() != null) {
+                userIds.add(g.pending().userId());
+            }
+        }
+        Set<UUID> existing = userIds.isEmpty() ? Set.of() : userRepository.findExistingIds(userIds);
+
+        List<PendingSubmission> rows = new ArrayList<>(graded.length);
+        for (int i = 0; i < graded.length; i++) {
+            PendingSubmission pending = graded[i].pending();
+            if (pending == null) {
+                continue;
+            }
+            if (existing.contains(pending.userId())) {
+                rows.add(pending);
+            } else {
+                graded[i] = new Graded(BulkGradeResult.failed(chunk.get(i).line(), pending.userId(),
+                        "User not found: " + pending.userId()), null);
+            }
+        }
+        batchRepository.insertAll(rows);
+
+        for (Graded g : graded) {
+            writeLine(out, g.result());
+        }
+        out.flush();
+        return rows.size();
+    }
+
+    private Graded gradeSheet(AnswerKey key, Sheet sheet) {
+        ExamSubmitRequest req;
+        try {
+            req = objectMapper.readValue(sheet.json(), ExamSubmitRequest.class);
+        } catch (JacksonException e) {
+            return new Graded(BulkGradeResult.failed(sheet.line(), null, "Malformed sheet: " + e.getOriginalMessage()), null);
+        }
+
+        // quizId is optional in a sheet, the path variable is authoritative
+        if (req.quizId() == null) {
+            req = new ExamSubmitRequest(req.userId(), key.quizId(), req.answers(), req.attemptId());
+        } else if (!req.quizId().equals(key.quizId())) {
+            return new Graded(BulkGradeResult.failed(sheet.line(), req.userId(),
+                    "Sheet belongs to another quiz: " + req.quizId()), null);
+        }
+
+        Set<ConstraintViolation<ExamSubmitRequest>> violations = validator.validate(req);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<ExamSubmitRequest> v = violations.iterator().next();
+            return new Graded(BulkGradeResult.failed(sheet.line(), req.userId(),
+                    v.getPropertyPath() + ": " + v.getMessage()), null);
+        }
+
+        GradeResult result;
+        try {
+            result = BitsetGrader.grade(key, req.answers());
+        } catch (IllegalArgumentException e) {
+            return new Graded(BulkGradeResult.failed(sheet.line(), req.userId(), e.getMessage()), null);
+        }
+
+        double totalScore = key.totalScore();
+        double percentage = (result.achievedScore() / totalScore) * 100;
+        boolean passed = percentage >= 50;
+
+        PendingSubmission pending = PendingSubmission.of(req.userId(), key, result.achievedScore(),
+                totalScore, passed, ResultCodec.encode(key, result), LocalDateTime.now(), null);
+
+        return new Graded(new BulkGradeResult(
+                sheet.line(),
+                pending.id(),
+                req.userId(),
+                result.correctCount(),
+                result.achievedScore(),
+                percentage,
+                passed,
+                null
+        ), pending);
+    }
+
+    private void writeLine(OutputStream out, Object value) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(value));
+        out.write('\n');
+    }
+}
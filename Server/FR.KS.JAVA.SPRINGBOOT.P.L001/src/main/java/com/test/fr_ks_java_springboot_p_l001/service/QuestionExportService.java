@@ -0,0 +1,14 @@
+package com.test.fr_ks_java_springboot_p_l001.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.UUID;
+
+public interface QuestionExportService {
+
+    /**
+     * Streams the active questions of a quiz with their answers, one JSON object per line.
+     * The lines can be imported again through the question import.
+     */
+    StreamingResponseBody exportQuiz(UUID quizId);
+}
@@ -0,0 +1,68 @@
+package com.test.fr_ks_java_springboot_p_l001.service;
+
+import com.test.fr_ks_java_springboot_p_l001.exception.NotFoundException;
+import com.test.fr_ks_java_springboot_p_l001.repository.QuestionExportRepository;
+import com.test.fr_ks_java_springboot_p_l001.repository.QuizRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class QuestionExportServiceImpl implements QuestionExportService {
+
+    private final QuizRepository quizRepository;
+    private final QuestionExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public QuestionExportServiceImpl(QuizRepository quizRepository, QuestionExportRepository exportRepository,
+                                     ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.quizRepository = quizRepository;
+        this.exportRepository = exportRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public StreamingResponseBody exportQuiz(UUID quizId) {
+        // checked up front, once streaming has started the status can no longer change
+        if (!quizRepository.existsByIdAndActiveTrue(quizId)) {
+            throw new NotFoundException("Quiz not found: " + quizId);
+        }
+        return out -> stream(quizId, out);
+    }
+
+    private void stream(UUID quizId, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+
+        // the transaction keeps the cursor open while lines are written to the client
+        Long exported;
+        try {
+            exported = transactionTemplate.execute(status ->
+                    exportRepository.forEachQuestion(quizId, question -> {
+                        try {
+                            out.write(objectMapper.writeValueAsBytes(question));
+                            out.write('\n');
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }));
+        } catch (UncheckedIOException e) {
+            // client went away, the cursor is closed with the rolled back transaction
+            throw e.getCause();
+        }
+        out.flush();
+
+        log.info("Exported {} questions of quiz {} in {} ms", exported, quizId, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,16 @@
+package com.test.fr_ks_java_springboot_p_l001.service;
+
+import com.test.fr_ks_java_springboot_p_l001.dto.BulkImportReport;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface QuestionImportService {
+
+    /**
+     * Imports questions with their answers from NDJSON (one questionRequest per line) or CSV.
+     * Invalid rows are reported and skipped, the others are stored.
+     */
+    BulkImportReport importQuestions(InputStream in, MediaType contentType) throws IOException;
+}
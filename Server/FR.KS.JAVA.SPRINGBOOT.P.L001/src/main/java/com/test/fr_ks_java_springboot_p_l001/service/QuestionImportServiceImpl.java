@@ -0,0 +1,170 @@
+package com.test.fr_ks_java_springboot_p_l001.service;
+
+import com.test.fr_ks_java_springboot_p_l001.bulkimport.ImportReport;
+import com.test.fr_ks_java_springboot_p_l001.bulkimport.ParsedRow;
+import com.test.fr_ks_java_springboot_p_l001.bulkimport.QuestionRow;
+import com.test.fr_ks_java_springboot_p_l001.bulkimport.RowSource;
+import com.test.fr_ks_java_springboot_p_l001.dto.BulkImportReport;
+import com.test.fr_ks_java_springboot_p_l001.dto.answer.answerRequest;
+import com.test.fr_ks_java_springboot_p_l001.dto.question.questionRequest;
+import com.test.fr_ks_java_springboot_p_l001.entity.QuestionType;
+import com.test.fr_ks_java_springboot_p_l001.repository.QuestionBatchRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuestionImportServiceImpl implements QuestionImportService {
+
+    // questions.content is a varchar(255)
+    private static final int MAX_CONTENT_LENGTH = 255;
+
+    private final QuestionBatchRepository batchRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${exam.question-import.chunk-size:1000}")
+    private int chunkSize;
+
+    private record Valid(long line, QuestionRow row) {}
+
+    @Override
+    public BulkImportReport importQuestions(InputStream in, MediaType contentType) throws IOException {
+        RowSource<questionRequest> source = RowSource.open(in, contentType, objectMapper, questionRequest.class,
+                "content", QuestionImportServiceImpl::csvRow);
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        ImportReport report = new ImportReport();
+        List<Valid> chunk = new ArrayList<>(chunkSize);
+
+        ParsedRow<questionRequest> row;
+        while ((row = source.next()) != null) {
+            report.read();
+            String error = row.error() != null ? row.error() : validate(row.request());
+            if (error != null) {
+                report.fail(row.line(), error);
+                continue;
+            }
+            chunk.add(new Valid(row.line(), toRow(row.request())));
+            if (chunk.size() == chunkSize) {
+                flush(tx, chunk, report);
+                chunk.clear();
+            }
+        }
+        flush(tx, chunk, report);
+
+        if (report.imported() > 0) {
+            // rows written behind Hibernate's back: cached query results on questions may be stale
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+        }
+
+        BulkImportReport result = report.finish();
+        log.info("Imported {}/{} questions in {} ms ({} failed)", result.imported(), result.total(), result.elapsedMs(), result.failed());
+        return result;
+    }
+
+    /**
+     * Writes one chunk in its own transaction. A chunk rejected by the database is reported
+     * row by row and the import goes on with the next chunk.
+     */
+    private void flush(TransactionTemplate tx, List<Valid> chunk, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<QuestionRow> rows = chunk.stream().map(Valid::row).toList();
+        try {
+            tx.executeWithoutResult(s -> batchRepository.insertAll(rows, Instant.now()));
+            report.imported(rows.size());
+        } catch (DataAccessException ex) {
+            String reason = "Chunk rejected by the database: " + NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+            log.warn("Question import chunk of lines {}-{} failed", chunk.get(0).line(), chunk.get(chunk.size() - 1).line(), ex);
+            for (Valid v : chunk) {
+                report.fail(v.line(), reason);
+            }
+        }
+    }
+
+    private String validate(questionRequest req) {
+        Set<ConstraintViolation<questionRequest>> violations = validator.validate(req);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<questionRequest> v = violations.iterator().next();
+            return v.getPropertyPath() + ": " + v.getMessage();
+        }
+        if (req.content().length() > MAX_CONTENT_LENGTH) {
+            return "content: must be at most " + MAX_CONTENT_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private static QuestionRow toRow(questionRequest req) {
+        List<QuestionRow.AnswerRow> answers = req.answers().stream()
+                .map(a -> new QuestionRow.AnswerRow(UUID.randomUUID(), a.content(), a.isCorrect()))
+                .toList();
+        return new QuestionRow(UUID.randomUUID(), req.content(), req.type(), req.score(), answers);
+    }
+
+    /**
+     * CSV columns: content, type, score, then one (answer, isCorrect) pair per answer.
+     * A first record starting with "content" is a header and is skipped.
+     */
+    private static ParsedRow<questionRequest> csvRow(long line, List<String> fields) {
+        if (fields.size() < 5 || (fields.size() - 3) % 2 != 0) {
+            return ParsedRow.failed(line, "Expected content, type, score and (answer, isCorrect) pairs, got "
+                    + fields.size() + " columns");
+        }
+        QuestionType type;
+        try {
+            type = QuestionType.valueOf(fields.get(1).trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ParsedRow.failed(line, "type: unknown question type '" + fields.get(1) + "'");
+        }
+        int score;
+        try {
+            score = Integer.parseInt(fields.get(2).trim());
+        } catch (NumberFormatException e) {
+            return ParsedRow.failed(line, "score: not a number '" + fields.get(2) + "'");
+        }
+
+        List<answerRequest> answers = new ArrayList<>((fields.size() - 3) / 2);
+        for (int i = 3; i < fields.size(); i += 2) {
+            Boolean correct = parseBoolean(fields.get(i + 1));
+            if (correct == null) {
+                return ParsedRow.failed(line, "isCorrect: expected true or false, got '" + fields.get(i + 1) + "'");
+            }
+            answers.add(new answerRequest(null, fields.get(i), correct));
+        }
+        return ParsedRow.of(line, new questionRequest(fields.get(0), type, score, answers));
+    }
+
+    private static Boolean parseBoolean(String value) {
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true", "1", "yes" -> Boolean.TRUE;
+            case "false", "0", "no" -> Boolean.FALSE;
+            default -> null;
+        };
+    }
+}
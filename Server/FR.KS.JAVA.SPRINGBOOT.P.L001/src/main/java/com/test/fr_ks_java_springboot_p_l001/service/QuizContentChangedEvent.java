@@ -0,0 +1,15 @@
+package com.test.fr_ks_java_springboot_p_l001.service;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published whenever a quiz, or a question belonging to it, is modified.
+ * Listeners use it to drop per-quiz derived data (answer keys, snapshots...).
+ */
+public record QuizContentChangedEvent(Set<UUID> quizIds) {
+
+    public static QuizContentChangedEvent of(UUID quizId) {
+        return new QuizContentChangedEvent(Set.of(quizId));
+    }
+}
@@ -1,7 +1,10 @@
 package com.test.fr_ks_java_springboot_p_l001.service;
 
+import com.test.fr_ks_java_springboot_p_l001.delivery.QuizSnapshot;
+import com.test.fr_ks_java_springboot_p_l001.dto.CursorPageResponse;
 import com.test.fr_ks_java_springboot_p_l001.dto.PageResponseDTO;
 import com.test.fr_ks_java_springboot_p_l001.dto.quiz.AddQuestionsToQuizRequest;
+import com.test.fr_ks_java_springboot_p_l001.dto.quiz.QuizQuestionsResponse;
 import com.test.fr_ks_java_springboot_p_l001.dto.quiz.QuizRequest;
 import com.test.fr_ks_java_springboot_p_l001.dto.quiz.QuizResponse;
 import org.springframework.data.domain.Page;
@@ -15,11 +18,31 @@ public interface QuizService {
 
     PageResponseDTO<QuizResponse> getAll(Pageable pageable);
 
+    /**
+     * Newest first, keyset-paginated: no OFFSET and no count query.
+     *
+     * @param cursor nextCursor of the previous page, null for the first page
+     */
+    CursorPageResponse<QuizResponse> getPage(String cursor, int size);
+
     QuizResponse getById(UUID id);
 
+    /**
+     * Student view of the quiz with its questions, serialized once per version of the quiz.
+     */
+    QuizSnapshot getDetails(UUID id);
+
     QuizResponse update(UUID id, QuizRequest req);
 
     void delete(UUID id);
 
-    void addQuestions(UUID quizId, java.util.List<UUID> questionIds);
+    /**
+     * Links questions to the quiz in one statement; questions already linked are skipped.
+     */
+    QuizQuestionsResponse addQuestions(UUID quizId, java.util.List<UUID> questionIds);
+
+    /**
+     * Unlinks questions from the quiz in one statement; questions not linked are ignored.
+     */
+    QuizQuestionsResponse removeQuestions(UUID quizId, java.util.List<UUID> questionIds);
 }
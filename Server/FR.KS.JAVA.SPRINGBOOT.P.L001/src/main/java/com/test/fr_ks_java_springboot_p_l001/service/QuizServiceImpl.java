@@ -1,16 +1,23 @@
 package com.test.fr_ks_java_springboot_p_l001.service;
 
 
+import com.test.fr_ks_java_springboot_p_l001.delivery.QuizSnapshot;
+import com.test.fr_ks_java_springboot_p_l001.delivery.QuizSnapshotCache;
+import com.test.fr_ks_java_springboot_p_l001.dto.CursorPageResponse;
 import com.test.fr_ks_java_springboot_p_l001.dto.PageResponseDTO;
+import com.test.fr_ks_java_springboot_p_l001.dto.quiz.QuizQuestionsResponse;
 import com.test.fr_ks_java_springboot_p_l001.dto.quiz.QuizRequest;
 import com.test.fr_ks_java_springboot_p_l001.dto.quiz.QuizResponse;
-import com.test.fr_ks_java_springboot_p_l001.entity.Question;
+import com.test.fr_ks_java_springboot_p_l001.dto.quiz.QuizSummary;
 import com.test.fr_ks_java_springboot_p_l001.entity.Quiz;
 import com.test.fr_ks_java_springboot_p_l001.exception.NotFoundException;
+import com.test.fr_ks_java_springboot_p_l001.repository.QuizQuestionBatchRepository;
 import com.test.fr_ks_java_springboot_p_l001.repository.QuizRepository;
 import com.test.fr_ks_java_springboot_p_l001.repository.UserRepository;
-import com.test.fr_ks_java_springboot_p_l001.repository.questionRepository;
+import com.test.fr_ks_java_springboot_p_l001.pagination.PageCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -24,8 +31,10 @@ import java.util.UUID;
 public class QuizServiceImpl implements QuizService{
 
     private  final QuizRepository quizRepository;
-    private final questionRepository questionRepository;
+    private final QuizQuestionBatchRepository quizQuestionBatchRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final QuizSnapshotCache quizSnapshotCache;
 
     @Override
     @Transactional
@@ -34,6 +43,7 @@ public class QuizServiceImpl implements QuizService{
         q.setTitle(req.title());
         q.setDescription(req.description());
         q.setDurationMinutes(req.durationMinutes());
+        q.setQuestionsPerAttempt(req.questionsPerAttempt());
         q.setActive(true);
 
         return toRes(quizRepository.save(q));
@@ -41,7 +51,7 @@ public class QuizServiceImpl implements QuizService{
 
     @Override
     public PageResponseDTO<QuizResponse> getAll(Pageable pageable) {
-        Page<Quiz> page = quizRepository.findAllByActiveTrue(pageable);
+        Page<QuizSummary> page = quizRepository.findSummariesByActiveTrue(pageable);
 
         List<QuizResponse> items = page.getContent()
                 .stream()
@@ -57,11 +67,30 @@ public class QuizServiceImpl implements QuizService{
         );
     }
 
+    @Override
+    public CursorPageResponse<QuizResponse> getPage(String cursor, int size) {
+        int pageSize = Math.clamp(size, 1, CursorPageResponse.MAX_PAGE_SIZE);
+        PageCursor after = PageCursor.decode(cursor);
+        // one extra row tells whether a next page exists
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<QuizSummary> rows = after == null
+                ? quizRepository.findSummariesFirstPage(limit)
+                : quizRepository.findSummariesAfter(after.createdAt(), after.id(), limit);
+
+        return CursorPageResponse.of(rows, pageSize, q -> new PageCursor(q.createdAt(), q.id()), this::toRes);
+    }
+
     @Override
     public QuizResponse getById(UUID id) {
-        Quiz q = quizRepository.findByIdAndActiveTrue(id)
+        return quizRepository.findSummaryByIdAndActiveTrue(id)
+                .map(this::toRes)
                 .orElseThrow(() -> new NotFoundException("Quiz not found: " + id));
-        return toRes(q);
+    }
+
+    @Override
+    public QuizSnapshot getDetails(UUID id) {
+        return quizSnapshotCache.get(id);
     }
 
     @Override
@@ -73,8 +102,11 @@ public class QuizServiceImpl implements QuizService{
         q.setTitle(req.title());
         q.setDescription(req.description());
         q.setDurationMinutes(req.durationMinutes());
+        q.setQuestionsPerAttempt(req.questionsPerAttempt());
 
-        return toRes(quizRepository.save(q));
+        QuizResponse res = toRes(quizRepository.save(q));
+        eventPublisher.publishEvent(QuizContentChangedEvent.of(id));
+        return res;
     }
 
     @Override
@@ -82,25 +114,59 @@ public class QuizServiceImpl implements QuizService{
         Quiz q = quizRepository.findByIdAndActiveTrue(id)
                 .orElseThrow(() -> new NotFoundException("Quiz not found: " + id));
         q.setActive(false);
+        eventPublisher.publishEvent(QuizContentChangedEvent.of(id));
     }
 
     @Override
-    public void addQuestions(UUID quizId, List<UUID> questionIds) {
-        Quiz quiz = quizRepository.findByIdAndActiveTrue(quizId)
-                .orElseThrow(() -> new NotFoundException("Quiz not found"));
+    @Transactional
+    public QuizQuestionsResponse addQuestions(UUID quizId, List<UUID> questionIds) {
+        if (!quizRepository.existsByIdAndActiveTrue(quizId)) {
+            throw new NotFoundException("Quiz not found: " + quizId);
+        }
 
-        List<Question> questions = questionRepository.findAllById(questionIds);
+        // một câu lệnh cho cả danh sách, không load entity Question
+        QuizQuestionBatchRepository.AttachResult result = quizQuestionBatchRepository.attach(quizId, questionIds);
+        if (result.found() < result.requested()) {
+            // rollback: không gắn một phần danh sách
+            throw new NotFoundException("Some questions not found: "
+                    + (result.requested() - result.found()) + " of " + result.requested());
+        }
 
-        if (questions.size() != questionIds.size()) {
-            throw new IllegalArgumentException("Some questions not found");
+        if (result.attached() > 0) {
+            eventPublisher.publishEvent(QuizContentChangedEvent.of(quizId));
         }
+        return new QuizQuestionsResponse(quizId, result.requested(), result.attached(),
+                result.requested() - result.attached());
+    }
 
-        for (Question q : questions) {
-            quiz.getQuestions().add(q);
-            quizRepository.save(quiz);
+    @Override
+    @Transactional
+    public QuizQuestionsResponse removeQuestions(UUID quizId, List<UUID> questionIds) {
+        if (!quizRepository.existsByIdAndActiveTrue(quizId)) {
+            throw new NotFoundException("Quiz not found: " + quizId);
         }
 
-        questionRepository.saveAll(questions);
+        int requested = (int) questionIds.stream().distinct().count();
+        int detached = quizQuestionBatchRepository.detach(quizId, questionIds);
+
+        if (detached > 0) {
+            eventPublisher.publishEvent(QuizContentChangedEvent.of(quizId));
+        }
+        return new QuizQuestionsResponse(quizId, requested, detached, requested - detached);
+    }
+
+    private QuizResponse toRes(QuizSummary q) {
+        return new QuizResponse(
+                q.id(),
+                q.title(),
+                q.description(),
+                q.durationMinutes(),
+                q.questionsPerAttempt(),
+                q.active(),
+                q.questionCount(),
+                q.createdAt(),
+                q.updatedAt()
+        );
     }
 
     private QuizResponse toRes(Quiz q) {
@@ -109,6 +175,7 @@ public class QuizServiceImpl implements QuizService{
                 q.getTitle(),
                 q.getDescription(),
                 q.getDurationMinutes(),
+                q.getQuestionsPerAttempt(),
                 q.getActive(),
                 q.getQuestions() != null ? q.getQuestions().size() : 0,
                 q.getCreatedAt(),
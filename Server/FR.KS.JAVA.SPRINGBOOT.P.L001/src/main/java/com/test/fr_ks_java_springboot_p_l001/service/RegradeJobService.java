@@ -0,0 +1,12 @@
+package com.test.fr_ks_java_springboot_p_l001.service;
+
+import com.test.fr_ks_java_springboot_p_l001.dto.regrade.RegradeJobResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface RegradeJobService {
+    RegradeJobResponse getById(UUID id);
+
+    List<RegradeJobResponse> getByQuiz(UUID quizId);
+}
@@ -0,0 +1,56 @@
+package com.test.fr_ks_java_springboot_p_l001.service;
+
+import com.test.fr_ks_java_springboot_p_l001.dto.regrade.RegradeJobResponse;
+import com.test.fr_ks_java_springboot_p_l001.entity.RegradeJob;
+import com.test.fr_ks_java_springboot_p_l001.entity.RegradeStatus;
+import com.test.fr_ks_java_springboot_p_l001.exception.NotFoundException;
+import com.test.fr_ks_java_springboot_p_l001.repository.RegradeJobRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class RegradeJobServiceImpl implements RegradeJobService {
+
+    private final RegradeJobRepository regradeJobRepository;
+
+    @Override
+    public RegradeJobResponse getById(UUID id) {
+        return regradeJobRepository.findById(id)
+                .map(this::toRes)
+                .orElseThrow(() -> new NotFoundException("Regrade job not found: " + id));
+    }
+
+    @Override
+    public List<RegradeJobResponse> getByQuiz(UUID quizId) {
+        return regradeJobRepository.findByQuizIdOrderByCreatedAtDesc(quizId)
+                .stream()
+                .map(this::toRes)
+                .toList();
+    }
+
+    private RegradeJobResponse toRes(RegradeJob job) {
+        long total = job.getTotalCount();
+        long processed = job.getProcessedCount();
+        double percent = total > 0 ? Math.min(100.0, processed * 100.0 / total) : 0;
+
+        return new RegradeJobResponse(
+                job.getId(),
+                job.getQuizId(),
+                job.getStatus(),
+                total,
+                processed,
+                job.getChangedCount(),
+                job.getSkippedCount(),
+                job.getStatus() == RegradeStatus.COMPLETED ? 100 : percent,
+                job.getStartedAt(),
+                job.getFinishedAt(),
+                job.getError()
+        );
+    }
+}
@@ -0,0 +1,9 @@
+package com.test.fr_ks_java_springboot_p_l001.service;
+
+import java.util.UUID;
+
+/**
+ * Published whenever a user is updated or deactivated.
+ * Listeners use it to drop per-user derived data (token revocations...).
+ */
+public record UserChangedEvent(UUID userId) {}
@@ -0,0 +1,16 @@
+package com.test.fr_ks_java_springboot_p_l001.service;
+
+import com.test.fr_ks_java_springboot_p_l001.dto.BulkImportReport;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface UserImportService {
+
+    /**
+     * Creates users from NDJSON (one UserImportRequest per line) or CSV.
+     * Invalid rows and emails already taken are reported and skipped, the others are stored.
+     */
+    BulkImportReport importUsers(InputStream in, MediaType contentType) throws IOException;
+}
@@ -0,0 +1,251 @@
+package com.test.fr_ks_java_springboot_p_l001.service;
+
+import com.test.fr_ks_java_springboot_p_l001.bulkimport.ImportReport;
+import com.test.fr_ks_java_springboot_p_l001.bulkimport.ParsedRow;
+import com.test.fr_ks_java_springboot_p_l001.bulkimport.RowSource;
+import com.test.fr_ks_java_springboot_p_l001.bulkimport.UserRow;
+import com.test.fr_ks_java_springboot_p_l001.dto.BulkImportReport;
+import com.test.fr_ks_java_springboot_p_l001.dto.user.UserImportRequest;
+import com.test.fr_ks_java_springboot_p_l001.entity.Role;
+import com.test.fr_ks_java_springboot_p_l001.entity.RoleEnum;
+import com.test.fr_ks_java_springboot_p_l001.repository.RoleRepository;
+import com.test.fr_ks_java_springboot_p_l001.repository.UserBatchRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk user creation.
+ * <p>
+ * Rows are read and validated one by one and written per chunk: the emails of a chunk are checked
+ * against {@code users} in one query, the passwords of the remaining rows are hashed concurrently on
+ * {@code hash-threads} workers, then the users and their {@code user_roles} rows are batch-inserted
+ * in one transaction. BCrypt dominates the cost, so the import scales with the cores given to it.
+ * The hashing pool is separate from the one serving logins ({@code BoundedPasswordEncoder}), whose
+ * bounded queue would refuse a chunk.
+ */
+@Slf4j
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private final UserBatchRepository batchRepository;
+    private final RoleRepository roleRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PlatformTransactionManager transactionManager;
+    private final BCryptPasswordEncoder encoder;
+    private final ExecutorService hashExecutor;
+    private final int chunkSize;
+
+    public UserImportServiceImpl(
+            UserBatchRepository batchRepository,
+            RoleRepository roleRepository,
+            ObjectMapper objectMapper,
+            Validator validator,
+            PlatformTransactionManager transactionManager,
+            @Value("${security.password.bcrypt-strength:10}") int strength,
+            @Value("${exam.user-import.hash-threads:0}") int hashThreads,
+            @Value("${exam.user-import.chunk-size:1000}") int chunkSize
+    ) {
+        this.batchRepository = batchRepository;
+        this.roleRepository = roleRepository;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionManager = transactionManager;
+        // same cost as the hashes written on registration, so imported users are not rehashed on login
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.chunkSize = chunkSize;
+
+        // by default half the cores: BCrypt saturates every thread it gets, logins must keep some
+        int threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger seq = new AtomicInteger();
+        this.hashExecutor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "user-import-hash-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private record Valid(long line, String email, UserImportRequest req, Set<UUID> roleIds) {}
+
+    @PreDestroy
+    void shutdown() {
+        hashExecutor.shutdown();
+    }
+
+    @Override
+    public BulkImportReport importUsers(InputStream in, MediaType contentType) throws IOException {
+        RowSource<UserImportRequest> source = RowSource.open(in, contentType, objectMapper, UserImportRequest.class,
+                "email", UserImportServiceImpl::csvRow);
+
+        Map<RoleEnum, UUID> roleIds = new EnumMap<>(RoleEnum.class);
+        for (Role role : roleRepository.findAll()) {
+            roleIds.put(role.getName(), role.getId());
+        }
+        if (!roleIds.containsKey(RoleEnum.ROLE_USER)) {
+            throw new IllegalArgumentException("ROLE_USER not found");
+        }
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        ImportReport report = new ImportReport();
+        // email -> line of its first occurrence in the file
+        Map<String, Long> seen = new HashMap<>();
+        List<Valid> chunk = new ArrayList<>(chunkSize);
+
+        ParsedRow<UserImportRequest> row;
+        while ((row = source.next()) != null) {
+            report.read();
+            String error = row.error() != null ? row.error() : validate(row.request());
+            if (error != null) {
+                report.fail(row.line(), error);
+                continue;
+            }
+            Set<UUID> roles = resolveRoles(row.request().roles(), roleIds);
+            if (roles == null) {
+                report.fail(row.line(), "roles: not found " + row.request().roles());
+                continue;
+            }
+            String email = row.request().email().trim().toLowerCase(Locale.ROOT);
+            Long firstLine = seen.putIfAbsent(email, row.line());
+            if (firstLine != null) {
+                report.fail(row.line(), "email: already in the file at line " + firstLine);
+                continue;
+            }
+            chunk.add(new Valid(row.line(), email, row.request(), roles));
+            if (chunk.size() == chunkSize) {
+                flush(tx, chunk, report);
+                chunk.clear();
+            }
+        }
+        flush(tx, chunk, report);
+
+        BulkImportReport result = report.finish();
+        log.info("Imported {}/{} users in {} ms ({} failed)", result.imported(), result.total(), result.elapsedMs(), result.failed());
+        return result;
+    }
+
+    /**
+     * Drops the rows whose email is taken, hashes the others concurrently and writes them in one
+     * transaction. A chunk rejected by the database (an email taken meanwhile...) is reported
+     * row by row and the import goes on with the next chunk.
+     */
+    private void flush(TransactionTemplate tx, List<Valid> chunk, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<String> taken = batchRepository.findExistingEmails(chunk.stream().map(Valid::email).toList());
+
+        List<Valid> fresh = new ArrayList<>(chunk.size());
+        for (Valid v : chunk) {
+            if (taken.contains(v.email())) {
+                report.fail(v.line(), "email: already exists");
+            } else {
+                fresh.add(v);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        List<CompletableFuture<String>> hashes = fresh.stream()
+                .map(v -> CompletableFuture.supplyAsync(() -> encoder.encode(v.req().password()), hashExecutor))
+                .toList();
+        List<UserRow> rows = new ArrayList<>(fresh.size());
+        for (int i = 0; i < fresh.size(); i++) {
+            Valid v = fresh.get(i);
+            rows.add(new UserRow(UUID.randomUUID(), v.email(), hashes.get(i).join(), v.req().fullName().trim(), v.roleIds()));
+        }
+
+        try {
+            tx.executeWithoutResult(s -> batchRepository.insertAll(rows, Instant.now()));
+            report.imported(rows.size());
+        } catch (DataAccessException ex) {
+            String reason = "Chunk rejected by the database: " + NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+            log.warn("User import chunk of lines {}-{} failed", fresh.get(0).line(), fresh.get(fresh.size() - 1).line(), ex);
+            for (Valid v : fresh) {
+                report.fail(v.line(), reason);
+            }
+        }
+    }
+
+    private String validate(UserImportRequest req) {
+        Set<ConstraintViolation<UserImportRequest>> violations = validator.validate(req);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<UserImportRequest> v = violations.iterator().next();
+            return v.getPropertyPath() + ": " + v.getMessage();
+        }
+        return null;
+    }
+
+    /**
+     * @return ids of the roles, ROLE_USER when none is given, null if one does not exist
+     */
+    private static Set<UUID> resolveRoles(Set<RoleEnum> roles, Map<RoleEnum, UUID> roleIds) {
+        if (roles == null || roles.isEmpty()) {
+            return Set.of(roleIds.get(RoleEnum.ROLE_USER));
+        }
+        Set<UUID> ids = new HashSet<>(roles.size());
+        for (RoleEnum role : roles) {
+            UUID id = roleIds.get(role);
+            if (id == null) {
+                return null;
+            }
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    /**
+     * CSV columns: email, password, fullName, then optionally the roles separated by ';'
+     * (ROLE_ADMIN or ADMIN). A first record starting with "email" is a header and is skipped.
+     */
+    private static ParsedRow<UserImportRequest> csvRow(long line, List<String> fields) {
+        if (fields.size() < 3 || fields.size() > 4) {
+            return ParsedRow.failed(line, "Expected email, password, fullName and optional roles, got "
+                    + fields.size() + " columns");
+        }
+        Set<RoleEnum> roles = EnumSet.noneOf(RoleEnum.class);
+        if (fields.size() == 4) {
+            for (String name : fields.get(3).split(";")) {
+                String role = name.trim().toUpperCase(Locale.ROOT);
+                if (role.isEmpty()) {
+                    continue;
+                }
+                try {
+                    roles.add(RoleEnum.valueOf(role.startsWith("ROLE_") ? role : "ROLE_" + role));
+                } catch (IllegalArgumentException e) {
+                    return ParsedRow.failed(line, "roles: unknown role '" + name.trim() + "'");
+                }
+            }
+        }
+        return ParsedRow.of(line, new UserImportRequest(fields.get(0), fields.get(1), fields.get(2), roles));
+    }
+}
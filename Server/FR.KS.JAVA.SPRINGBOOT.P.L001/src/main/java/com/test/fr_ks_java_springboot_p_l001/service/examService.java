@@ -1,8 +1,45 @@
 package com.test.fr_ks_java_springboot_p_l001.service;
 
+import com.test.fr_ks_java_springboot_p_l001.dto.submissions.AttemptProgressResponse;
+import com.test.fr_ks_java_springboot_p_l001.dto.submissions.AutosaveAnswerRequest;
+import com.test.fr_ks_java_springboot_p_l001.dto.submissions.ExamAttemptResponse;
 import com.test.fr_ks_java_springboot_p_l001.dto.submissions.ExamSubmitRequest;
 import com.test.fr_ks_java_springboot_p_l001.dto.submissions.ExamSubmitResponse;
+import com.test.fr_ks_java_springboot_p_l001.security.JwtPrincipal;
+
+import java.util.UUID;
 
 public interface examService {
-    ExamSubmitResponse submit(ExamSubmitRequest req);
+    /**
+     * @param userId the authenticated user, who owns the attempt
+     */
+    ExamAttemptResponse start(UUID quizId, UUID userId);
+
+    /**
+     * @param idempotencyKey stored with the submission, may be null; a keyed submission is written
+     *                       before returning, so a duplicate key fails here and not in a later batch
+     * @param requestHash    stored with the key, to tell a retry from another request reusing it
+     */
+    ExamSubmitResponse submit(ExamSubmitRequest req, String idempotencyKey, Long requestHash);
+
+    /**
+     * @param userId the authenticated user, who must own the attempt
+     */
+    AttemptProgressResponse saveAnswer(UUID attemptId, UUID questionId, UUID userId, AutosaveAnswerRequest req);
+
+    /**
+     * @param userId the authenticated user, who must own the attempt
+     */
+    ExamSubmitResponse submitAttempt(UUID attemptId, UUID userId);
+
+    /**
+     * Not scoped to a user, for callers that already own the submission (idempotent replays).
+     */
+    ExamSubmitResponse getSubmission(UUID id);
+
+    /**
+     * @throws com.test.fr_ks_java_springboot_p_l001.exception.NotFoundException also when the submission
+     *         belongs to another user and the requester is not an admin
+     */
+    ExamSubmitResponse getSubmission(UUID id, JwtPrincipal requester);
 }
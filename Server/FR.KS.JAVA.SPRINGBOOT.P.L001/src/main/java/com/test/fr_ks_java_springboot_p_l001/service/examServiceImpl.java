@@ -1,19 +1,35 @@
 package com.test.fr_ks_java_springboot_p_l001.service;
 
+import com.test.fr_ks_java_springboot_p_l001.attempt.AttemptRegistry;
+import com.test.fr_ks_java_springboot_p_l001.attempt.AttemptSession;
+import com.test.fr_ks_java_springboot_p_l001.dto.submissions.AttemptProgressResponse;
+import com.test.fr_ks_java_springboot_p_l001.dto.submissions.AutosaveAnswerRequest;
+import com.test.fr_ks_java_springboot_p_l001.dto.submissions.ExamAttemptResponse;
 import com.test.fr_ks_java_springboot_p_l001.dto.submissions.ExamSubmitRequest;
 import com.test.fr_ks_java_springboot_p_l001.dto.submissions.ExamSubmitResponse;
 import com.test.fr_ks_java_springboot_p_l001.entity.*;
+import com.test.fr_ks_java_springboot_p_l001.exception.BadRequestException;
+import com.test.fr_ks_java_springboot_p_l001.exception.ConflictException;
 import com.test.fr_ks_java_springboot_p_l001.exception.NotFoundException;
+import com.test.fr_ks_java_springboot_p_l001.grading.AnswerKey;
+import com.test.fr_ks_java_springboot_p_l001.grading.AnswerKeyCache;
+import com.test.fr_ks_java_springboot_p_l001.grading.BitsetGrader;
+import com.test.fr_ks_java_springboot_p_l001.grading.GradeResult;
+import com.test.fr_ks_java_springboot_p_l001.grading.ResultCodec;
 import com.test.fr_ks_java_springboot_p_l001.repository.QuizRepository;
 import com.test.fr_ks_java_springboot_p_l001.repository.QuizSubmissionRepository;
 import com.test.fr_ks_java_springboot_p_l001.repository.UserRepository;
+import com.test.fr_ks_java_springboot_p_l001.security.JwtPrincipal;
+import com.test.fr_ks_java_springboot_p_l001.submission.PendingSubmission;
+import com.test.fr_ks_java_springboot_p_l001.submission.SubmissionWriteBehindQueue;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,76 +39,130 @@ public class examServiceImpl implements  examService {
     private final QuizRepository quizRepository;
     private final UserRepository userRepository;
     private final QuizSubmissionRepository submissionRepository;
+    private final AnswerKeyCache answerKeyCache;
+    private final SubmissionWriteBehindQueue writeBehindQueue;
+    private final AttemptRegistry attemptRegistry;
+
+    @Value("${exam.attempt.required:false}")
+    private boolean attemptRequired;
 
     @Override
-    public ExamSubmitResponse submit(ExamSubmitRequest req) {
+    public ExamAttemptResponse start(UUID quizId, UUID userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found: " + userId));
+        Quiz quiz = quizRepository.findByIdAndActiveTrue(quizId)
+                .orElseThrow(() -> new NotFoundException("Quiz not found: " + quizId));
+
+        AttemptSession session = attemptRegistry.start(user.getId(), quiz.getId(), quiz.getDurationMinutes());
+
+        return new ExamAttemptResponse(
+                session.id(),
+                session.userId(),
+                session.quizId(),
+                session.status(),
+                session.startedAt(),
+                session.deadline(),
+                session.durationMinutes(),
+                session.key().questions().stream().map(AnswerKey.QuestionKey::id).toList()
+        );
+    }
+
+    @Override
+    public ExamSubmitResponse submit(ExamSubmitRequest req, String idempotencyKey, Long requestHash) {
 
         // ================= 1. Load User =================
         User user = userRepository.findById(req.userId())
                 .orElseThrow(() -> new NotFoundException("User not found: " + req.userId()));
 
-        // ================= 2. Load Quiz (FIX N+1) =================
-        Quiz quiz = quizRepository.findWithQuestionsAndAnswersById(req.quizId())
-                .orElseThrow(() -> new NotFoundException("Quiz not found: " + req.quizId()));
+        // a running attempt is closed by its submission even when the client left out its id,
+        // otherwise it would stay open (and be recorded again on expiry) next to this one
+        UUID attemptId = req.attemptId() != null ? req.attemptId()
+                : attemptRegistry.findActive(user.getId(), req.quizId()).map(AttemptSession::id).orElse(null);
 
-        List<Question> questions = quiz.getQuestions();
-        int totalQuestions = questions.size();
+        if (attemptId == null && attemptRequired) {
+            throw new BadRequestException("Attempt ID is required, start the exam first");
+        }
 
-        if (totalQuestions == 0) {
-            throw new IllegalArgumentException("Quiz has no questions");
+        AnswerKey key;
+        GradeResult graded;
+
+        if (attemptId != null) {
+            // ================= 2a. Attempt: apply answers on top of the autosaves =================
+            AttemptSession session = attemptRegistry.open(attemptId, user.getId(), req.quizId());
+            key = session.key();
+            for (ExamSubmitRequest.QuestionAnswerDTO dto : req.answers()) {
+                // unknown questions are ignored, as in a full grade
+                session.answer(dto.questionId(), dto.answerIds());
+            }
+            graded = attemptRegistry.finish(session);
+        } else {
+            // ================= 2b. Load Answer Key (cached per quiz) and grade =================
+            key = answerKeyCache.get(req.quizId());
+            if (key.drawsPerAttempt()) {
+                // the questions the user answered are only known from the attempt's draw
+                throw new BadRequestException("Quiz draws questions per attempt, start the exam first");
+            }
+            graded = BitsetGrader.grade(key, req.answers());
         }
 
-        // ================= 3. Map user answers =================
-        Map<UUID, List<UUID>> submittedAnswersMap = req.answers().stream()
-                .collect(Collectors.toMap(
-                        ExamSubmitRequest.QuestionAnswerDTO::questionId,
-                        ExamSubmitRequest.QuestionAnswerDTO::answerIds
-                ));
+        return record(user, key, graded, idempotencyKey, requestHash);
+    }
 
-        double achievedScore = 0;
-        double totalScore = 0;
-        int correctCount = 0;
-        int wrongCount = 0;
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AttemptProgressResponse saveAnswer(UUID attemptId, UUID questionId, UUID userId, AutosaveAnswerRequest req) {
+        // memory only, the registry writes the attempt in its next batch
+        AttemptSession session = attemptRegistry.open(attemptId, userId, null);
+        attemptRegistry.save(session, questionId, req.answerIds());
 
-        List<ExamSubmitResponse.QuestionResultDTO> questionResults = new ArrayList<>();
+        return new AttemptProgressResponse(
+                session.id(),
+                questionId,
+                session.answeredCount(),
+                session.key().questions().size(),
+                session.deadline()
+        );
+    }
 
-        // ================= 4. Evaluate each question =================
-        for (Question q : questions) {
+    @Override
+    public ExamSubmitResponse submitAttempt(UUID attemptId, UUID userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found: " + userId));
 
-            totalScore += q.getScore();
+        // graded while autosaving, nothing left to re-grade
+        AttemptSession session = attemptRegistry.open(attemptId, user.getId(), null);
+        GradeResult graded = attemptRegistry.finish(session);
 
-            List<UUID> submittedIds = submittedAnswersMap.getOrDefault(q.getId(), List.of());
+        return record(user, session.key(), graded, null, null);
+    }
 
-            List<UUID> correctIds = q.getAnswers().stream()
-                    .filter(Answer::getIsCorrect)
-                    .map(Answer::getId)
-                    .toList();
+    private ExamSubmitResponse record(User user, AnswerKey key, GradeResult graded,
+                                      String idempotencyKey, Long requestHash) {
+        List<AnswerKey.QuestionKey> questions = key.questions();
+        int totalQuestions = questions.size();
 
-            boolean isCorrect;
+        if (totalQuestions == 0) {
+            throw new IllegalArgumentException("Quiz has no questions");
+        }
 
-            if (q.getType() == QuestionType.SINGLE_CHOICE) {
-                // SINGLE: chọn đúng 1 đáp án và đúng đáp án
-                isCorrect = submittedIds.size() == 1
-                        && correctIds.contains(submittedIds.get(0));
-            } else {
-                // MULTIPLE: chọn CHÍNH XÁC tập đáp án (không thiếu, không thừa)
-                isCorrect = new HashSet<>(submittedIds).equals(new HashSet<>(correctIds));
-            }
+        // ================= 3. Score =================
+        double achievedScore = graded.achievedScore();
+        double totalScore = key.totalScore();
+        int correctCount = graded.correctCount();
+        int wrongCount = totalQuestions - correctCount;
 
-            if (isCorrect) {
-                achievedScore += q.getScore();
-                correctCount++;
-            } else {
-                wrongCount++;
-            }
+        List<ExamSubmitResponse.QuestionResultDTO> questionResults = new ArrayList<>(totalQuestions);
 
+        // ================= 4. Per-question breakdown =================
+        for (int i = 0; i < totalQuestions; i++) {
+            AnswerKey.QuestionKey q = questions.get(i);
             questionResults.add(new ExamSubmitResponse.QuestionResultDTO(
-                    q.getId(),
-                    q.getContent(),
-                    q.getScore(),
-                    isCorrect,
-                    submittedIds,
-                    correctIds
+                    q.id(),
+                    q.content(),
+                    q.score(),
+                    graded.isCorrect(i),
+                    graded.submittedIds(i),
+                    q.correctIds()
             ));
         }
 
@@ -100,24 +170,44 @@ public class examServiceImpl implements  examService {
         boolean passed = percentage >= 50;
 
         // ================= 5. Save Submission =================
-        QuizSubmission submission = new QuizSubmission();
-        submission.setUser(user);
-        submission.setQuiz(quiz);
-        submission.setScore(achievedScore);
-//        submission.setTotalScore(totalScore);
-//        submission.setPassed(passed);
-        submission.setSubmissionTime(LocalDateTime.now());
+        LocalDateTime submissionTime = LocalDateTime.now();
+        byte[] results = ResultCodec.encode(key, graded);
+        UUID submissionId;
+
+        if (writeBehindQueue.isEnabled() && idempotencyKey == null) {
+            // write-behind: the row is inserted later in a JDBC batch; a keyed submission is not,
+            // its id must not be returned before the unique (user_id, idempotency_key) check passed
+            PendingSubmission pending = PendingSubmission.of(user.getId(), key, achievedScore,
+                    totalScore, passed, results, submissionTime, idempotencyKey);
+            writeBehindQueue.enqueue(pending);
+            submissionId = pending.id();
+        } else {
+            QuizSubmission submission = new QuizSubmission();
+            submission.setUser(user);
+            submission.setQuiz(quizRepository.getReferenceById(key.quizId()));
+            submission.setScore(achievedScore);
+            submission.setTotalScore(totalScore);
+            submission.setPassed(passed);
+            submission.setResults(results);
+            submission.setIdempotencyKey(idempotencyKey);
+            submission.setRequestHash(requestHash);
+            if (key.sampleSeed() != null) {
+                submission.setQuestionSeed(key.sampleSeed());
+                submission.setQuestionCount(totalQuestions);
+            }
+            submission.setSubmissionTime(submissionTime);
 
-        submissionRepository.save(submission);
+            submissionId = submissionRepository.save(submission).getId();
+        }
 
         // ================= 6. Build Response =================
         return new ExamSubmitResponse(
-                submission.getId(),
+                submissionId,
                 user.getId(),
                 user.getEmail(),
                 user.getFullName(),
-                quiz.getId(),
-                quiz.getTitle(),
+                key.quizId(),
+                key.quizTitle(),
                 totalQuestions,
                 correctCount,
                 wrongCount,
@@ -125,6 +215,95 @@ public class examServiceImpl implements  examService {
                 achievedScore,
                 percentage,
                 passed,
+                submissionTime,
+                questionResults
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ExamSubmitResponse getSubmission(UUID id) {
+        QuizSubmission submission = submissionRepository.findWithUserById(id)
+                .orElseThrow(() -> new NotFoundException("Submission not found: " + id));
+        return toResponse(submission);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ExamSubmitResponse getSubmission(UUID id, JwtPrincipal requester) {
+        QuizSubmission submission = submissionRepository.findWithUserById(id)
+                // another user's submission is reported as missing, its id is not confirmed
+                .filter(s -> requester.isAdmin() || s.getUser().getId().equals(requester.userId()))
+                .orElseThrow(() -> new NotFoundException("Submission not found: " + id));
+        return toResponse(submission);
+    }
+
+    private ExamSubmitResponse toResponse(QuizSubmission submission) {
+        UUID id = submission.getId();
+        if (submission.getResults() == null) {
+            throw new ConflictException("Submission " + id + " has no stored per-question results");
+        }
+
+        // the breakdown is rebuilt from the cached key, answers are never joined;
+        // a sampled attempt draws its questions again from the seed, the fingerprint
+        // stored in the results tells whether they are still the ones it was graded on
+        AnswerKey key;
+        List<ResultCodec.QuestionOutcome> outcomes;
+        try {
+            key = answerKeyCache.get(submission.getQuiz().getId())
+                    .forSample(submission.getQuestionSeed(), submission.getQuestionCount());
+            outcomes = ResultCodec.decode(key, submission.getResults());
+        } catch (IllegalStateException ex) {
+            throw new ConflictException("Quiz has changed since submission " + id + " was graded");
+        }
+        List<AnswerKey.QuestionKey> questions = key.questions();
+
+        int correctCount = 0;
+        List<ExamSubmitResponse.QuestionResultDTO> questionResults = new ArrayList<>(questions.size());
+
+        for (int i = 0; i < questions.size(); i++) {
+            AnswerKey.QuestionKey q = questions.get(i);
+            ResultCodec.QuestionOutcome outcome = outcomes.get(i);
+
+            List<UUID> submittedIds = new ArrayList<>(outcome.ordinals().length);
+            for (int ordinal : outcome.ordinals()) {
+                if (ordinal >= q.answerIds().size()) {
+                    throw new ConflictException("Quiz has changed since submission " + id + " was graded");
+                }
+                submittedIds.add(q.answerIds().get(ordinal));
+            }
+
+            if (outcome.correct()) {
+                correctCount++;
+            }
+            questionResults.add(new ExamSubmitResponse.QuestionResultDTO(
+                    q.id(),
+                    q.content(),
+                    q.score(),
+                    outcome.correct(),
+                    submittedIds,
+                    q.correctIds()
+            ));
+        }
+
+        User user = submission.getUser();
+        double totalScore = submission.getTotalScore() != null ? submission.getTotalScore() : key.totalScore();
+        double percentage = (submission.getScore() / totalScore) * 100;
+
+        return new ExamSubmitResponse(
+                submission.getId(),
+                user.getId(),
+                user.getEmail(),
+                user.getFullName(),
+                key.quizId(),
+                key.quizTitle(),
+                questions.size(),
+                correctCount,
+                questions.size() - correctCount,
+                totalScore,
+                submission.getScore(),
+                percentage,
+                submission.getPassed() != null ? submission.getPassed() : percentage >= 50,
                 submission.getSubmissionTime(),
                 questionResults
         );
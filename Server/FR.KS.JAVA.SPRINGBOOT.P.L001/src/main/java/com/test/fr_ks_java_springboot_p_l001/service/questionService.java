@@ -1,5 +1,6 @@
 package com.test.fr_ks_java_springboot_p_l001.service;
 
+import com.test.fr_ks_java_springboot_p_l001.dto.CursorPageResponse;
 import com.test.fr_ks_java_springboot_p_l001.dto.PageResponseDTO;
 import com.test.fr_ks_java_springboot_p_l001.dto.question.questionRequest;
 import com.test.fr_ks_java_springboot_p_l001.dto.question.questionResponse;
@@ -14,6 +15,13 @@ public interface questionService {
 
     PageResponseDTO<questionResponse> getAll(Pageable pageable);
 
+    /**
+     * Newest first, keyset-paginated: no OFFSET and no count query.
+     *
+     * @param cursor nextCursor of the previous page, null for the first page
+     */
+    CursorPageResponse<questionResponse> getPage(String cursor, int size);
+
     PageResponseDTO<questionResponse> searchWithPaging(String content, QuestionType type, Pageable pageable);
 
     questionResponse getById(UUID id);
@@ -1,5 +1,6 @@
 package com.test.fr_ks_java_springboot_p_l001.service;
 
+import com.test.fr_ks_java_springboot_p_l001.dto.CursorPageResponse;
 import com.test.fr_ks_java_springboot_p_l001.dto.PageResponseDTO;
 import com.test.fr_ks_java_springboot_p_l001.dto.answer.answerRequest;
 import com.test.fr_ks_java_springboot_p_l001.dto.answer.answerResponse;
@@ -8,16 +9,27 @@ import com.test.fr_ks_java_springboot_p_l001.dto.question.questionResponse;
 import com.test.fr_ks_java_springboot_p_l001.entity.Answer;
 import com.test.fr_ks_java_springboot_p_l001.entity.Question;
 import com.test.fr_ks_java_springboot_p_l001.entity.QuestionType;
+import com.test.fr_ks_java_springboot_p_l001.entity.Quiz;
+import com.test.fr_ks_java_springboot_p_l001.exception.BadRequestException;
 import com.test.fr_ks_java_springboot_p_l001.exception.NotFoundException;
 import com.test.fr_ks_java_springboot_p_l001.repository.questionRepository;
+import com.test.fr_ks_java_springboot_p_l001.pagination.PageCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +37,7 @@ import java.util.UUID;
 public class questionServiceImpl implements questionService {
 
     private final questionRepository questionRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -38,6 +51,7 @@ public class questionServiceImpl implements questionService {
             Answer a = new Answer();
             a.setContent(ar.content());
             a.setIsCorrect(ar.isCorrect());
+            a.setQuestion(q);
             q.getAnswers().add(a);
         }
         return toRes(questionRepository.save(q));
@@ -62,8 +76,33 @@ public class questionServiceImpl implements questionService {
     }
 
     @Override
+    public CursorPageResponse<questionResponse> getPage(String cursor, int size) {
+        int pageSize = Math.clamp(size, 1, CursorPageResponse.MAX_PAGE_SIZE);
+        PageCursor after = PageCursor.decode(cursor);
+        // one extra row tells whether a next page exists
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<Question> rows = after == null
+                ? questionRepository.findFirstPage(limit)
+                : questionRepository.findPageAfter(after.createdAt(), after.id(), limit);
+
+        return CursorPageResponse.of(rows, pageSize, q -> new PageCursor(q.getCreatedAt(), q.getId()), this::toRes);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public PageResponseDTO<questionResponse> searchWithPaging(String content, QuestionType type, Pageable pageable) {
-        return null;
+        Page<Question> page;
+        if (content == null || content.isBlank()) {
+            page = type == null
+                    ? questionRepository.findByActiveTrue(pageable)
+                    : questionRepository.findByActiveTrueAndType(type, pageable);
+        } else {
+            // thứ tự theo độ liên quan, bỏ sort của client
+            Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+            page = questionRepository.search(content.trim(), type != null ? type.name() : null, unsorted);
+        }
+        return PageResponseDTO.from(page.map(this::toRes));
     }
 
     @Override
@@ -77,20 +116,40 @@ public class questionServiceImpl implements questionService {
     public questionResponse update(UUID id, questionRequest req) {
         Question q = questionRepository.findByIdAndActiveTrue(id)
                 .orElseThrow(() -> new NotFoundException("Question not found: " + id));
+        Map<UUID, answerRequest> kept = keptAnswers(q, req);
+        boolean keyChanged = gradingChanged(q, req, kept);
 
         q.setContent(req.content());
         q.setType(req.type());
         q.setScore(req.score());
 
-        q.getAnswers().clear();
-        for (answerRequest ar : req.answers()) {
-            Answer a = new Answer();
+        // khớp đáp án theo id, không theo thứ tự gửi lên: đáp án cũ giữ id và vị trí
+        // trong các bài đã nộp, đáp án mới được thêm vào cuối
+        List<Answer> answers = q.getAnswers();
+        answers.removeIf(a -> !kept.containsKey(a.getId()));
+        for (Answer a : answers) {
+            answerRequest ar = kept.get(a.getId());
             a.setContent(ar.content());
             a.setIsCorrect(ar.isCorrect());
-            q.getAnswers().add(a);
+        }
+        for (answerRequest ar : req.answers()) {
+            if (ar.id() == null) {
+                Answer a = new Answer();
+                a.setContent(ar.content());
+                a.setIsCorrect(ar.isCorrect());
+                a.setQuestion(q);
+                answers.add(a);
+            }
         }
 
-        return toRes(questionRepository.save(q));
+        Question saved = questionRepository.save(q);
+        publishQuizChanged(saved);
+        if (keyChanged && !saved.getQuiz().isEmpty()) {
+            // điểm của các bài đã nộp không còn đúng, chấm lại ở background
+            eventPublisher.publishEvent(new AnswerKeyChangedEvent(
+                    saved.getQuiz().stream().map(Quiz::getId).collect(Collectors.toSet())));
+        }
+        return toRes(saved);
     }
 
     @Override
@@ -98,6 +157,51 @@ public class questionServiceImpl implements questionService {
         Question q = questionRepository.findByIdAndActiveTrue(id)
                 .orElseThrow(() -> new NotFoundException("Question not found: " + id));
         q.setActive(false);
+        publishQuizChanged(q);
+    }
+
+    private void publishQuizChanged(Question q) {
+        if (q.getQuiz().isEmpty()) {
+            return;
+        }
+        eventPublisher.publishEvent(new QuizContentChangedEvent(
+                q.getQuiz().stream().map(Quiz::getId).collect(Collectors.toSet())));
+    }
+
+    /**
+     * The request's answers that update a saved answer, by id.
+     *
+     * @throws BadRequestException if an id is repeated or is not an answer of the question
+     */
+    private static Map<UUID, answerRequest> keptAnswers(Question q, questionRequest req) {
+        Set<UUID> saved = q.getAnswers().stream().map(Answer::getId).collect(Collectors.toSet());
+        Map<UUID, answerRequest> kept = new HashMap<>();
+        for (answerRequest ar : req.answers()) {
+            if (ar.id() == null) {
+                continue;
+            }
+            if (!saved.contains(ar.id())) {
+                throw new BadRequestException("Answer " + ar.id() + " does not belong to question " + q.getId());
+            }
+            if (kept.put(ar.id(), ar) != null) {
+                throw new BadRequestException("Answer " + ar.id() + " is listed twice");
+            }
+        }
+        return kept;
+    }
+
+    private static boolean gradingChanged(Question q, questionRequest req, Map<UUID, answerRequest> kept) {
+        if (q.getType() != req.type() || !Objects.equals(q.getScore(), req.score())
+                || kept.size() != q.getAnswers().size() || kept.size() != req.answers().size()) {
+            // đáp án bị xoá hoặc thêm mới
+            return true;
+        }
+        for (Answer a : q.getAnswers()) {
+            if (!Objects.equals(a.getIsCorrect(), kept.get(a.getId()).isCorrect())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private questionResponse toRes(Question q) {
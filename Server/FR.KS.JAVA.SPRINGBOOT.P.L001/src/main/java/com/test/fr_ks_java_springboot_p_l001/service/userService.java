@@ -1,5 +1,6 @@
 package com.test.fr_ks_java_springboot_p_l001.service;
 
+import com.test.fr_ks_java_springboot_p_l001.dto.CursorPageResponse;
 import com.test.fr_ks_java_springboot_p_l001.dto.PageResponseDTO;
 import com.test.fr_ks_java_springboot_p_l001.dto.user.UserRequest;
 import com.test.fr_ks_java_springboot_p_l001.dto.user.UserResponse;
@@ -13,6 +14,13 @@ public interface userService {
 
     PageResponseDTO<UserResponse> getAll(Pageable pageable);
 
+    /**
+     * Newest first, keyset-paginated: no OFFSET and no count query.
+     *
+     * @param cursor nextCursor of the previous page, null for the first page
+     */
+    CursorPageResponse<UserResponse> getPage(String cursor, int size);
+
     UserResponse getById(UUID id);
 
     UserResponse update(UUID id, UserRequest req);
@@ -1,5 +1,6 @@
 package com.test.fr_ks_java_springboot_p_l001.service;
 
+import com.test.fr_ks_java_springboot_p_l001.dto.CursorPageResponse;
 import com.test.fr_ks_java_springboot_p_l001.dto.PageResponseDTO;
 import com.test.fr_ks_java_springboot_p_l001.dto.user.UserRequest;
 import com.test.fr_ks_java_springboot_p_l001.dto.user.UserResponse;
@@ -9,7 +10,11 @@ import com.test.fr_ks_java_springboot_p_l001.entity.User;
 import com.test.fr_ks_java_springboot_p_l001.exception.NotFoundException;
 import com.test.fr_ks_java_springboot_p_l001.repository.RoleRepository;
 import com.test.fr_ks_java_springboot_p_l001.repository.UserRepository;
+import com.test.fr_ks_java_springboot_p_l001.pagination.PageCursor;
+import com.test.fr_ks_java_springboot_p_l001.security.TokenRevocationList;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -30,6 +35,8 @@ public class userServiceImpl implements  userService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TokenRevocationList revocationList;
     @Override
     public UserResponse create(UserRequest req) {
         if (userRepository.existsByEmailIgnoreCase(req.email())) {
@@ -66,6 +73,20 @@ public class userServiceImpl implements  userService {
         );
     }
 
+    @Override
+    public CursorPageResponse<UserResponse> getPage(String cursor, int size) {
+        int pageSize = Math.clamp(size, 1, CursorPageResponse.MAX_PAGE_SIZE);
+        PageCursor after = PageCursor.decode(cursor);
+        // one extra row tells whether a next page exists
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<User> rows = after == null
+                ? userRepository.findFirstPage(limit)
+                : userRepository.findPageAfter(after.createdAt(), after.id(), limit);
+
+        return CursorPageResponse.of(rows, pageSize, u -> new PageCursor(u.getCreatedAt(), u.getId()), this::toRes);
+    }
+
     @Override
     public UserResponse getById(UUID id) {
         User u = userRepository.findByIdAndActiveTrue(id)
@@ -81,20 +102,32 @@ public class userServiceImpl implements  userService {
         // email không cho đổi
         u.setFullName(req.fullName().trim());
 
+        // token đã cấp mang roles cũ và vẫn hợp lệ tới khi hết hạn: đổi password/roles/khóa user thì thu hồi
+        boolean revokeTokens = false;
+
         if (req.password() != null && !req.password().isBlank()) {
             u.setPassword(passwordEncoder.encode(req.password()));
+            revokeTokens = true;
         }
 
         if (req.active() != null) {
+            revokeTokens |= !req.active();
             u.setActive(req.active());
         }
 
         if (req.roleIds() != null && !req.roleIds().isEmpty()) {
             Set<Role> roles = fetchRoles(req.roleIds());
+            revokeTokens |= !roles.equals(u.getRoles());
             u.setRoles(roles);
         }
 
-        return toRes(userRepository.save(u));
+        if (revokeTokens) {
+            revocationList.revoke(id);
+        }
+
+        UserResponse res = toRes(userRepository.save(u));
+        eventPublisher.publishEvent(new UserChangedEvent(id));
+        return res;
     }
 
     @Override
@@ -102,6 +135,8 @@ public class userServiceImpl implements  userService {
         User u = userRepository.findByIdAndActiveTrue(id)
                 .orElseThrow(() -> new NotFoundException("User not found: " + id));
         u.setActive(false);
+        revocationList.revoke(id);
+        eventPublisher.publishEvent(new UserChangedEvent(id));
     }
 
     private Set<Role> fetchRoles(Set<UUID> roleIds) {
@@ -0,0 +1,75 @@
+package com.test.fr_ks_java_springboot_p_l001.submission;
+
+import com.test.fr_ks_java_springboot_p_l001.grading.AnswerKey;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * A graded submission waiting to be written to {@code quiz_submissions}.
+ * The id is assigned up front so the response can be returned before the row exists.
+ * {@code questionSeed} and {@code questionCount} are set when the attempt got a sample of the quiz.
+ */
+public record PendingSubmission(
+        UUID id,
+        UUID userId,
+        UUID quizId,
+        double score,
+        double totalScore,
+        boolean passed,
+        byte[] results,
+        LocalDateTime submissionTime,
+        Instant createdAt,
+        String idempotencyKey,
+        Long questionSeed,
+        Integer questionCount
+) {
+
+    /**
+     * @param key the key the submission was graded against, a sample records its seed
+     */
+    public static PendingSubmission of(UUID userId, AnswerKey key, double score, double totalScore, boolean passed,
+                                       byte[] results, LocalDateTime submissionTime, String idempotencyKey) {
+        Long seed = key.sampleSeed();
+        return new PendingSubmission(UUID.randomUUID(), userId, key.quizId(), score, totalScore, passed, results,
+                submissionTime, Instant.now(), idempotencyKey, seed, seed != null ? key.questions().size() : null);
+    }
+
+    /**
+     * Tab separated journal line. The idempotency key is base64 encoded as it comes from a header,
+     * and left empty when a question sample follows it.
+     */
+    String toLine() {
+        String line = id + "\t" + userId + "\t" + quizId + "\t" + score + "\t" + totalScore + "\t" + passed
+                + "\t" + Base64.getEncoder().encodeToString(results) + "\t" + submissionTime + "\t" + createdAt;
+        if (idempotencyKey != null || questionSeed != null) {
+            line += "\t" + (idempotencyKey != null
+                    ? Base64.getEncoder().encodeToString(idempotencyKey.getBytes(StandardCharsets.UTF_8)) : "");
+        }
+        if (questionSeed != null) {
+            line += "\t" + questionSeed + "\t" + questionCount;
+        }
+        return line;
+    }
+
+    static PendingSubmission fromLine(String line) {
+        String[] f = line.split("\t");
+        return new PendingSubmission(
+                UUID.fromString(f[0]),
+                UUID.fromString(f[1]),
+                UUID.fromString(f[2]),
+                Double.parseDouble(f[3]),
+                Double.parseDouble(f[4]),
+                Boolean.parseBoolean(f[5]),
+                Base64.getDecoder().decode(f[6]),
+                LocalDateTime.parse(f[7]),
+                Instant.parse(f[8]),
+                f.length > 9 && !f[9].isEmpty() ? new String(Base64.getDecoder().decode(f[9]), StandardCharsets.UTF_8) : null,
+                f.length > 11 ? Long.valueOf(f[10]) : null,
+                f.length > 11 ? Integer.valueOf(f[11]) : null
+        );
+    }
+}
@@ -0,0 +1,191 @@
+package com.test.fr_ks_java_springboot_p_l001.submission;
+
+import com.test.fr_ks_java_springboot_p_l001.dto.submissions.ExamSubmitRequest;
+import com.test.fr_ks_java_springboot_p_l001.dto.submissions.ExamSubmitResponse;
+import com.test.fr_ks_java_springboot_p_l001.entity.QuizSubmission;
+import com.test.fr_ks_java_springboot_p_l001.exception.BadRequestException;
+import com.test.fr_ks_java_springboot_p_l001.exception.UnprocessableEntityException;
+import com.test.fr_ks_java_springboot_p_l001.repository.QuizSubmissionRepository;
+import com.test.fr_ks_java_springboot_p_l001.service.examService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deduplicates exam submissions carrying an {@code Idempotency-Key} header.
+ * <p>
+ * Recently seen keys live in a concurrent map bounded by {@code max-entries} and expiring after
+ * {@code ttl-seconds}. The first request for a key registers a future before grading; a retry
+ * arriving meanwhile or later waits on that future and gets the same response without grading
+ * or touching the database. A key missing from the map (evicted, or seen before a restart) is
+ * looked up by the unique (user_id, idempotency_key) constraint of {@code quiz_submissions},
+ * and the stored submission is returned instead of grading again.
+ * <p>
+ * A hash of the request is kept with the key; reusing a key for a different body (another quiz,
+ * other answers) is refused with 422 rather than answered with the first result.
+ */
+@Component
+public class SubmissionDeduplicator {
+
+    static final int MAX_KEY_LENGTH = 100;
+
+    private record Key(UUID userId, String idempotencyKey) {}
+
+    private record Entry(Key key, long requestHash, CompletableFuture<ExamSubmitResponse> response, long expiresAt) {}
+
+    private final examService examService;
+    private final QuizSubmissionRepository submissionRepository;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    // insertion order, for expiry and size eviction
+    private final Queue<Entry> order = new ConcurrentLinkedQueue<>();
+    private final Counter replayed;
+
+    public SubmissionDeduplicator(
+            examService examService,
+            QuizSubmissionRepository submissionRepository,
+            MeterRegistry meterRegistry,
+            @Value("${exam.submission.idempotency.max-entries:10000}") int maxEntries,
+            @Value("${exam.submission.idempotency.ttl-seconds:3600}") long ttlSeconds
+    ) {
+        this.examService = examService;
+        this.submissionRepository = submissionRepository;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+
+        Gauge.builder("exam.submission.idempotency.keys", entries, Map::size)
+                .description("Idempotency keys held in memory")
+                .register(meterRegistry);
+        this.replayed = Counter.builder("exam.submission.idempotency.replayed")
+                .description("Retried submissions answered from the idempotency cache")
+                .register(meterRegistry);
+    }
+
+    public ExamSubmitResponse submit(String idempotencyKey, ExamSubmitRequest req) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        Key key = new Key(req.userId(), idempotencyKey);
+        long hash = requestHash(req);
+        long now = System.currentTimeMillis();
+        Entry mine = new Entry(key, hash, new CompletableFuture<>(), now + ttlMillis);
+
+        Entry seen = entries.putIfAbsent(key, mine);
+        while (seen != null) {
+            if (seen.expiresAt() > now) {
+                checkSameRequest(seen.requestHash(), hash);
+                replayed.increment();
+                return await(seen.response());
+            }
+            if (entries.replace(key, seen, mine)) {
+                break;
+            }
+            seen = entries.putIfAbsent(key, mine);
+        }
+        order.add(mine);
+        evict(now);
+
+        try {
+            ExamSubmitResponse response = submitOnce(key, hash, req);
+            mine.response().complete(response);
+            return response;
+        } catch (RuntimeException ex) {
+            // a failed attempt must not be replayed, let the next retry run again
+            entries.remove(key, mine);
+            mine.response().completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private ExamSubmitResponse submitOnce(Key key, long hash, ExamSubmitRequest req) {
+        // not in memory: the key may have been used before a restart
+        Optional<QuizSubmission> stored = submissionRepository.findByIdempotencyKey(key.userId(), key.idempotencyKey());
+        if (stored.isPresent()) {
+            return replay(stored.get(), hash);
+        }
+        try {
+            return examService.submit(req, key.idempotencyKey(), hash);
+        } catch (DataIntegrityViolationException ex) {
+            // another node stored the same key first
+            return submissionRepository.findByIdempotencyKey(key.userId(), key.idempotencyKey())
+                    .map(s -> replay(s, hash))
+                    .orElseThrow(() -> ex);
+        }
+    }
+
+    private ExamSubmitResponse replay(QuizSubmission stored, long hash) {
+        // rows stored before request hashes were kept have none and are taken as the same request
+        if (stored.getRequestHash() != null) {
+            checkSameRequest(stored.getRequestHash(), hash);
+        }
+        return examService.getSubmission(stored.getId());
+    }
+
+    private static void checkSameRequest(long storedHash, long hash) {
+        if (storedHash != hash) {
+            throw new UnprocessableEntityException("Idempotency-Key was already used for a different submission");
+        }
+    }
+
+    /**
+     * Hash of what the submission is about: quiz, attempt and answers, ignoring the order of
+     * questions and of answer ids. The user is part of the key already.
+     */
+    static long requestHash(ExamSubmitRequest req) {
+        StringBuilder canonical = new StringBuilder().append(req.quizId()).append('|').append(req.attemptId());
+        req.answers().stream()
+                .sorted(Comparator.comparing(ExamSubmitRequest.QuestionAnswerDTO::questionId))
+                .forEach(a -> {
+                    canonical.append('|').append(a.questionId()).append(':');
+                    a.answerIds().stream().sorted().forEach(id -> canonical.append(id).append(','));
+                });
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private void evict(long now) {
+        Entry oldest;
+        while ((oldest = order.peek()) != null
+                && (entries.size() > maxEntries || oldest.expiresAt() <= now)) {
+            if (order.remove(oldest)) {
+                entries.remove(oldest.key(), oldest);
+            }
+        }
+    }
+
+    private static ExamSubmitResponse await(CompletableFuture<ExamSubmitResponse> response) {
+        try {
+            return response.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.test.fr_ks_java_springboot_p_l001.submission;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only segment files backing the write-behind queue.
+ * <p>
+ * Every queued submission is appended and forced to disk before it becomes visible to the
+ * writer, so neither a JVM crash nor a power loss loses it: segments left on disk are replayed
+ * at the next start. Concurrent appends share one fsync (group commit): a caller whose record was
+ * covered by another caller's force does not force again. A segment is deleted once every record
+ * in it has been inserted.
+ * <p>
+ * Records the database rejects for good are appended to {@code dead-letter.log}, in the same
+ * line format, so they can be inspected and replayed by hand.
+ */
+@Slf4j
+final class SubmissionJournal {
+
+    private static final String PREFIX = "submissions-";
+    private static final String SUFFIX = ".log";
+    private static final String DEAD_LETTER = "dead-letter.log";
+
+    private final Path dir;
+    private final int segmentSize;
+
+    // guarded by this
+    private final Map<Long, Integer> outstanding = new HashMap<>();
+    private long currentSegment;
+    private int currentCount;
+    private FileChannel writer;
+    // records appended so far, and how many of them are known to be on disk
+    private long appended;
+    private final Object syncLock = new Object();
+    private long synced;
+
+    SubmissionJournal(Path dir, int segmentSize) throws IOException {
+        this.dir = Files.createDirectories(dir);
+        this.segmentSize = segmentSize;
+        this.currentSegment = existingSegments().stream()
+                .mapToLong(SubmissionJournal::segmentOf)
+                .max()
+                .orElse(0);
+    }
+
+    /**
+     * Segment files left over by a previous run, oldest first.
+     */
+    List<Path> existingSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        segments.sort((a, b) -> Long.compare(segmentOf(a), segmentOf(b)));
+        return segments;
+    }
+
+    static List<PendingSubmission> read(Path segment) throws IOException {
+        List<PendingSubmission> records = new ArrayList<>();
+        for (String line : Files.readAllLines(segment, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                records.add(PendingSubmission.fromLine(line));
+            } catch (RuntimeException ex) {
+                // a torn last line after a crash
+                log.warn("Skipping unreadable journal line in {}: {}", segment.getFileName(), ex.getMessage());
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Appends the record and returns once it is on disk.
+     *
+     * @return the segment the record was written to, to be passed back to {@link #release}
+     */
+    long append(PendingSubmission submission) throws IOException {
+        long segment;
+        long seq;
+        synchronized (this) {
+            if (writer == null || currentCount >= segmentSize) {
+                rotate();
+            }
+            writeFully(writer, submission.toLine());
+            currentCount++;
+            outstanding.merge(currentSegment, 1, Integer::sum);
+            segment = currentSegment;
+            seq = ++appended;
+        }
+        sync(seq);
+        return segment;
+    }
+
+    /**
+     * Keeps a record the database refused, forced to disk before its segment can be released.
+     */
+    synchronized void deadLetter(PendingSubmission submission) throws IOException {
+        try (FileChannel ch = FileChannel.open(dir.resolve(DEAD_LETTER),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            writeFully(ch, submission.toLine());
+            ch.force(false);
+        }
+    }
+
+    // group commit: one force covers every record appended before it started
+    private void sync(long seq) throws IOException {
+        synchronized (syncLock) {
+            if (synced >= seq) {
+                return;
+            }
+            FileChannel ch;
+            long target;
+            synchronized (this) {
+                ch = writer;
+                target = appended;
+            }
+            try {
+                if (ch != null) {
+                    ch.force(false);
+                }
+            } catch (ClosedChannelException ex) {
+                // closed by a rotation or release, which forced it first
+            }
+            synced = target;
+        }
+    }
+
+    /**
+     * Marks {@code count} records of {@code segment} as persisted.
+     */
+    synchronized void release(long segment, int count) throws IOException {
+        Integer left = outstanding.merge(segment, -count, Integer::sum);
+        if (left != null && left > 0) {
+            return;
+        }
+        outstanding.remove(segment);
+        if (segment == currentSegment) {
+            closeWriter();
+        }
+        Files.deleteIfExists(segmentPath(segment));
+    }
+
+    synchronized void close() throws IOException {
+        closeWriter();
+    }
+
+    private void rotate() throws IOException {
+        closeWriter();
+        currentSegment++;
+        currentCount = 0;
+        writer = FileChannel.open(segmentPath(currentSegment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void closeWriter() throws IOException {
+        if (writer != null) {
+            // records not yet covered by a sync are made durable before the channel goes away
+            writer.force(false);
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private static void writeFully(FileChannel ch, String line) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        while (buf.hasRemaining()) {
+            ch.write(buf);
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return dir.resolve(PREFIX + segment + SUFFIX);
+    }
+
+    private static long segmentOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,293 @@
+package com.test.fr_ks_java_springboot_p_l001.submission;
+
+import com.test.fr_ks_java_springboot_p_l001.repository.QuizSubmissionBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional write-behind path for graded submissions.
+ * <p>
+ * When enabled, {@link #enqueue} journals the submission and hands it to a background writer
+ * that inserts rows with JDBC batches of up to {@code flush-size}, waiting at most
+ * {@code flush-interval-ms} for a batch to fill. When the queue is full the caller inserts
+ * the row itself, so a spike degrades to the synchronous behaviour instead of failing.
+ * The queue is drained on shutdown; anything left after a crash is replayed from the journal.
+ * <p>
+ * A batch still failing after {@code BATCH_ATTEMPTS} is written row by row: rows the database
+ * rejects (constraint violation, bad value...) are moved to the journal's dead-letter log, so one
+ * bad row cannot stall the writer. A transient or connection failure means the database is down:
+ * the rows not written yet are retried with a backoff instead.
+ */
+@Slf4j
+@Component
+public class SubmissionWriteBehindQueue implements SmartLifecycle {
+
+    private record Entry(PendingSubmission submission, long segment) {}
+
+    private static final int BATCH_ATTEMPTS = 3;
+
+    private final QuizSubmissionBatchRepository batchRepository;
+    private final boolean enabled;
+    private final int flushSize;
+    private final long flushIntervalMs;
+    private final Path journalDir;
+    private final BlockingQueue<Entry> queue;
+    private final Timer flushTimer;
+    private final Counter deadLettered;
+
+    private SubmissionJournal journal;
+    private Thread writer;
+    private volatile boolean running;
+
+    public SubmissionWriteBehindQueue(
+            QuizSubmissionBatchRepository batchRepository,
+            MeterRegistry meterRegistry,
+            @Value("${exam.submission.write-behind.enabled:false}") boolean enabled,
+            @Value("${exam.submission.write-behind.capacity:10000}") int capacity,
+            @Value("${exam.submission.write-behind.flush-size:500}") int flushSize,
+            @Value("${exam.submission.write-behind.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${exam.submission.write-behind.journal-dir:./data/submission-journal}") String journalDir
+    ) {
+        this.batchRepository = batchRepository;
+        this.enabled = enabled;
+        this.flushSize = flushSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.journalDir = Path.of(journalDir);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+
+        Gauge.builder("exam.submission.queue.depth", queue, BlockingQueue::size)
+                .description("Graded submissions waiting to be written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("exam.submission.flush")
+                .description("Latency of one write-behind batch insert")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("exam.submission.dead-lettered")
+                .description("Submissions the database rejected, kept in the journal's dead-letter log")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled && running;
+    }
+
+    /**
+     * Queues the submission, or inserts it synchronously if the queue is full or stopped.
+     */
+    public void enqueue(PendingSubmission submission) {
+        if (isEnabled()) {
+            try {
+                long segment = journal.append(submission);
+                if (queue.offer(new Entry(submission, segment))) {
+                    return;
+                }
+                journal.release(segment, 1);
+            } catch (IOException ex) {
+                log.warn("Submission journal unavailable, writing synchronously: {}", ex.getMessage());
+            }
+        }
+        batchRepository.insertAll(List.of(submission));
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            journal = new SubmissionJournal(journalDir, flushSize * 20);
+            replay();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open submission journal in " + journalDir, ex);
+        }
+
+        running = true;
+        writer = new Thread(this::writeLoop, "submission-writer");
+        writer.setDaemon(false);
+        writer.start();
+        log.info("Submission write-behind enabled (flush size {}, interval {} ms)", flushSize, flushIntervalMs);
+    }
+
+    @Override
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        try {
+            // the writer exits once the queue is empty
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+            journal.close();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (IOException ex) {
+            log.warn("Failed to close submission journal: {}", ex.getMessage());
+        }
+        if (!queue.isEmpty()) {
+            log.warn("{} submissions not flushed at shutdown, they will be replayed from the journal", queue.size());
+        }
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return writer != null;
+    }
+
+    private void replay() throws IOException {
+        for (Path segment : journal.existingSegments()) {
+            List<PendingSubmission> records = SubmissionJournal.read(segment);
+            boolean complete = true;
+            for (int i = 0; i < records.size(); i += flushSize) {
+                List<PendingSubmission> chunk = records.subList(i, Math.min(i + flushSize, records.size()));
+                try {
+                    batchRepository.insertAll(chunk);
+                } catch (RuntimeException ex) {
+                    complete &= isolate(chunk).isEmpty();
+                }
+            }
+            if (!complete) {
+                // keep the segment, it will be retried on the next start
+                log.error("Failed to replay journal segment {}, database unavailable", segment.getFileName());
+                continue;
+            }
+            Files.deleteIfExists(segment);
+            log.info("Replayed {} journaled submissions from {}", records.size(), segment.getFileName());
+        }
+    }
+
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>(flushSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // coalesce until the batch is full or the interval since the first entry has elapsed
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < flushSize) {
+                    if (queue.drainTo(batch, flushSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    Entry next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void flush(List<Entry> batch) throws InterruptedException {
+        List<Entry> pending = batch;
+        for (int attempt = 1; ; attempt++) {
+            List<PendingSubmission> rows = pending.stream().map(Entry::submission).toList();
+            try {
+                flushTimer.record(() -> batchRepository.insertAll(rows));
+                break;
+            } catch (RuntimeException ex) {
+                if (attempt < BATCH_ATTEMPTS) {
+                    log.warn("Batch insert of {} submissions failed (attempt {}): {}", rows.size(), attempt, ex.getMessage());
+                    Thread.sleep(100L * attempt);
+                    continue;
+                }
+            }
+
+            // isolate returns the rows it did not reach, a suffix of the batch
+            int done = rows.size() - isolate(rows).size();
+            release(pending.subList(0, done));
+            if (done == rows.size()) {
+                return;
+            }
+            pending = pending.subList(done, pending.size());
+            if (!running) {
+                // leave the records in the journal for the next start
+                log.error("Giving up on {} submissions at shutdown, database unavailable", pending.size());
+                return;
+            }
+            Thread.sleep(Math.min(5_000, 100L * attempt));
+        }
+        release(pending);
+    }
+
+    /**
+     * Writes the rows one by one, dead-lettering those the database rejects.
+     *
+     * @return rows neither written nor dead-lettered, because the database became unreachable
+     */
+    private List<PendingSubmission> isolate(List<PendingSubmission> rows) {
+        for (int i = 0; i < rows.size(); i++) {
+            PendingSubmission row = rows.get(i);
+            try {
+                batchRepository.insertAll(List.of(row));
+            } catch (TransientDataAccessException | DataAccessResourceFailureException
+                     | RecoverableDataAccessException ex) {
+                // not this row's fault: stop here, the rest is retried
+                return rows.subList(i, rows.size());
+            } catch (RuntimeException ex) {
+                if (!deadLetter(row, ex)) {
+                    return rows.subList(i, rows.size());
+                }
+            }
+        }
+        return List.of();
+    }
+
+    private boolean deadLetter(PendingSubmission row, RuntimeException cause) {
+        try {
+            journal.deadLetter(row);
+        } catch (IOException ex) {
+            log.error("Cannot dead-letter submission {}: {}", row.id(), ex.getMessage());
+            return false;
+        }
+        deadLettered.increment();
+        log.error("Submission {} of user {} rejected by the database, moved to the dead-letter log: {}",
+                row.id(), row.userId(), NestedExceptionUtils.getMostSpecificCause(cause).getMessage());
+        return true;
+    }
+
+    private void release(List<Entry> written) {
+        Map<Long, Integer> perSegment = new HashMap<>();
+        written.forEach(e -> perSegment.merge(e.segment(), 1, Integer::sum));
+        try {
+            for (Map.Entry<Long, Integer> e : perSegment.entrySet()) {
+                journal.release(e.getKey(), e.getValue());
+            }
+        } catch (IOException ex) {
+            log.warn("Failed to release journal segments: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.test.fr_ks_java_springboot_p_l001.attempt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    // 8 slots of 10 ms: one revolution is 80 ms
+    private final TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+    private final List<String> fired = new ArrayList<>();
+
+    @Test
+    void firesOnTheFirstTickAtOrAfterTheDeadline() {
+        wheel.schedule("a", 25);
+
+        wheel.advance(29, fired::add);
+        assertTrue(fired.isEmpty());
+
+        wheel.advance(30, fired::add);
+        assertEquals(List.of("a"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void waitsTheRemainingRoundsOfAFarDeadline() {
+        wheel.schedule("far", 1000);
+
+        wheel.advance(999, fired::add);
+        assertTrue(fired.isEmpty());
+
+        wheel.advance(1000, fired::add);
+        assertEquals(List.of("far"), fired);
+    }
+
+    @Test
+    void firesAMissedDeadlineOnTheNextTick() {
+        wheel.advance(100, fired::add);
+        wheel.schedule("late", 50);
+
+        wheel.advance(110, fired::add);
+        assertEquals(List.of("late"), fired);
+    }
+
+    @Test
+    void cancelledTimeoutsNeverFire() {
+        TimingWheel.Timeout<String> timeout = wheel.schedule("a", 25);
+        wheel.schedule("b", 25);
+
+        assertTrue(timeout.cancel());
+        wheel.advance(100, fired::add);
+
+        assertEquals(List.of("b"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void aFiredTimeoutCannotBeCancelled() {
+        TimingWheel.Timeout<String> timeout = wheel.schedule("a", 25);
+        wheel.advance(30, fired::add);
+
+        assertFalse(timeout.cancel());
+    }
+}
@@ -0,0 +1,124 @@
+package com.test.fr_ks_java_springboot_p_l001.benchmark;
+
+import com.test.fr_ks_java_springboot_p_l001.dto.submissions.ExamSubmitRequest;
+import com.test.fr_ks_java_springboot_p_l001.entity.Answer;
+import com.test.fr_ks_java_springboot_p_l001.entity.Question;
+import com.test.fr_ks_java_springboot_p_l001.entity.QuestionType;
+import com.test.fr_ks_java_springboot_p_l001.entity.Quiz;
+import com.test.fr_ks_java_springboot_p_l001.grading.AnswerKey;
+import com.test.fr_ks_java_springboot_p_l001.grading.BitsetGrader;
+import com.test.fr_ks_java_springboot_p_l001.grading.GradeResult;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the legacy grading loop of examServiceImpl.submit with {@link BitsetGrader}.
+ * <p>
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.test.fr_ks_java_springboot_p_l001.benchmark.GradingBenchmark}
+ * (add {@code -prof gc} in {@link #main} options to compare allocation rates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int questionCount;
+
+    private Quiz quiz;
+    private AnswerKey key;
+    private List<ExamSubmitRequest.QuestionAnswerDTO> answers;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        quiz = new Quiz();
+        quiz.setId(UUID.randomUUID());
+        quiz.setTitle("benchmark");
+
+        answers = new ArrayList<>(questionCount);
+        Instant now = Instant.now();
+
+        for (int i = 0; i < questionCount; i++) {
+            Question q = new Question();
+            q.setId(UUID.randomUUID());
+            q.setContent("Question " + i);
+            q.setScore(1 + random.nextInt(10));
+            q.setType(i % 3 == 0 ? QuestionType.MULTIPLE_CHOICE : QuestionType.SINGLE_CHOICE);
+
+            for (int j = 0; j < 4; j++) {
+                Answer a = new Answer();
+                a.setId(UUID.randomUUID());
+                a.setContent("Answer " + j);
+                a.setIsCorrect(j == 0 || (q.getType() == QuestionType.MULTIPLE_CHOICE && j == 2));
+                a.setCreatedAt(now.plusNanos(j * 1000L));
+                q.getAnswers().add(a);
+            }
+            quiz.getQuestions().add(q);
+
+            // ~70% right answers, the rest pick a wrong one
+            List<UUID> picked = random.nextInt(10) < 7
+                    ? q.getAnswers().stream().filter(Answer::getIsCorrect).map(Answer::getId).toList()
+                    : List.of(q.getAnswers().get(1).getId());
+            answers.add(new ExamSubmitRequest.QuestionAnswerDTO(q.getId(), picked));
+        }
+
+        key = AnswerKey.of(quiz, quiz.getQuestions());
+
+        if (legacy() != bitset()) {
+            throw new IllegalStateException("Legacy and bitset grading disagree");
+        }
+    }
+
+    @Benchmark
+    public double legacy() {
+        Map<UUID, List<UUID>> submittedAnswersMap = answers.stream()
+                .collect(Collectors.toMap(
+                        ExamSubmitRequest.QuestionAnswerDTO::questionId,
+                        ExamSubmitRequest.QuestionAnswerDTO::answerIds
+                ));
+
+        double achievedScore = 0;
+        for (Question q : quiz.getQuestions()) {
+            List<UUID> submittedIds = submittedAnswersMap.getOrDefault(q.getId(), List.of());
+            List<UUID> correctIds = q.getAnswers().stream()
+                    .filter(Answer::getIsCorrect)
+                    .map(Answer::getId)
+                    .toList();
+
+            boolean isCorrect;
+            if (q.getType() == QuestionType.SINGLE_CHOICE) {
+                isCorrect = submittedIds.size() == 1 && correctIds.contains(submittedIds.get(0));
+            } else {
+                isCorrect = new HashSet<>(submittedIds).equals(new HashSet<>(correctIds));
+            }
+            if (isCorrect) {
+                achievedScore += q.getScore();
+            }
+        }
+        return achievedScore;
+    }
+
+    @Benchmark
+    public double bitset() {
+        GradeResult result = BitsetGrader.grade(key, answers);
+        return result.achievedScore();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GradingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,76 @@
+package com.test.fr_ks_java_springboot_p_l001.benchmark;
+
+import com.test.fr_ks_java_springboot_p_l001.security.jwt.JwtClaims;
+import com.test.fr_ks_java_springboot_p_l001.security.jwt.JwtTokenProvider;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token check of JwtAuthenticationFilter: the legacy validate + getType + getSubject
+ * sequence (a new parser and a signature check per call) against one {@link JwtTokenProvider#parse}.
+ * <p>
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.test.fr_ks_java_springboot_p_l001.benchmark.JwtParseBenchmark}
+ * (add {@code -prof gc} in {@link #main} options to compare allocation rates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtParseBenchmark {
+
+    private static final String SECRET = "MP0g7MRaNPCAty4UWthKLbLPRsoKvN7N7WgxqPRY6DTmHRCZqvKLEkAtvyZ0XLCY";
+
+    private Key key;
+    private JwtTokenProvider provider;
+    private String token;
+
+    @Setup
+    public void setup() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        provider = new JwtTokenProvider(SECRET, 900_000, 604_800_000);
+        token = provider.generateAccessToken("user@example.com", UUID.randomUUID(), List.of("ROLE_USER"));
+
+        if (!legacy().equals(single().subject())) {
+            throw new IllegalStateException("Legacy and single parse disagree");
+        }
+    }
+
+    @Benchmark
+    public String legacy() {
+        // validate
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        // getType
+        String type = (String) Jwts.parserBuilder().setSigningKey(key).build()
+                .parseClaimsJws(token).getBody().get("type");
+        if (!"access".equals(type)) {
+            return null;
+        }
+        // getSubject
+        return Jwts.parserBuilder().setSigningKey(key).build()
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public JwtClaims single() {
+        return provider.parse(token).filter(JwtClaims::isAccess).orElse(null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtParseBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,76 @@
+package com.test.fr_ks_java_springboot_p_l001.bulkimport;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void readsOneRecordPerLine() throws IOException {
+        CsvRecordReader reader = reader("email,name\na@x.com,Alice\nb@x.com,Bob");
+
+        assertEquals(List.of("email", "name"), reader.next());
+        assertEquals(List.of("a@x.com", "Alice"), reader.next());
+        assertEquals(List.of("b@x.com", "Bob"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void keepsEmptyFields() throws IOException {
+        assertEquals(List.of("a", "", ""), reader("a,,\n").next());
+    }
+
+    @Test
+    void unquotesQuotedFields() throws IOException {
+        CsvRecordReader reader = reader("\"a,b\",\"say \"\"hi\"\"\",c\n");
+
+        assertEquals(List.of("a,b", "say \"hi\"", "c"), reader.next());
+    }
+
+    @Test
+    void keepsAQuoteInsideAnUnquotedField() throws IOException {
+        assertEquals(List.of("ab\"c", "d"), reader("ab\"c,d").next());
+    }
+
+    @Test
+    void readsLineBreaksInsideQuotedFields() throws IOException {
+        CsvRecordReader reader = reader("id,text\n1,\"line one\nline two\"\n2,x\n");
+
+        reader.next();
+        assertEquals(List.of("1", "line one\nline two"), reader.next());
+        assertEquals(2, reader.recordLine());
+        assertEquals(List.of("2", "x"), reader.next());
+        assertEquals(4, reader.recordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void skipsBlankLinesAndAcceptsCrLf() throws IOException {
+        CsvRecordReader reader = reader("a\r\n\r\nb\r\n");
+
+        assertEquals(List.of("a"), reader.next());
+        assertEquals(1, reader.recordLine());
+        assertEquals(List.of("b"), reader.next());
+        assertEquals(3, reader.recordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void refusesAnUnterminatedQuotedField() throws IOException {
+        CsvRecordReader reader = reader("a,b\n1,\"open\n");
+
+        reader.next();
+        assertThrows(IllegalArgumentException.class, reader::next);
+    }
+
+    private static CsvRecordReader reader(String csv) {
+        return new CsvRecordReader(new StringReader(csv));
+    }
+}
@@ -0,0 +1,95 @@
+package com.test.fr_ks_java_springboot_p_l001.grading;
+
+import com.test.fr_ks_java_springboot_p_l001.dto.submissions.ExamSubmitRequest;
+import com.test.fr_ks_java_springboot_p_l001.entity.Answer;
+import com.test.fr_ks_java_springboot_p_l001.entity.Question;
+import com.test.fr_ks_java_springboot_p_l001.entity.QuestionType;
+import com.test.fr_ks_java_springboot_p_l001.entity.Quiz;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BitsetGraderTest {
+
+    @Test
+    void gradesLikeTheLegacyLoop() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            Quiz quiz = QuizFixtures.quiz(random, 1 + random.nextInt(40));
+            AnswerKey key = QuizFixtures.key(quiz);
+            List<ExamSubmitRequest.QuestionAnswerDTO> answers = QuizFixtures.answers(random, quiz);
+
+            assertMatchesLegacy(key, quiz.getQuestions(), answers);
+        }
+    }
+
+    @Test
+    void gradesASampleLikeTheLegacyLoopOverTheDrawnQuestions() {
+        Random random = new Random(7);
+        Quiz quiz = QuizFixtures.quiz(random, 30);
+        AnswerKey sample = QuizFixtures.key(quiz).sample(99L, 10);
+        Map<UUID, Question> byId = quiz.getQuestions().stream()
+                .collect(Collectors.toMap(Question::getId, q -> q));
+        List<Question> drawn = sample.questions().stream().map(q -> byId.get(q.id())).toList();
+
+        // answers to questions outside the sample are ignored
+        assertMatchesLegacy(sample, drawn, QuizFixtures.answers(random, quiz));
+    }
+
+    @Test
+    void rejectsTwoAnswersToOneQuestion() {
+        Quiz quiz = QuizFixtures.quiz(new Random(1), 3);
+        Question q = quiz.getQuestions().get(0);
+        UUID answer = q.getAnswers().get(0).getId();
+        List<ExamSubmitRequest.QuestionAnswerDTO> answers = List.of(
+                new ExamSubmitRequest.QuestionAnswerDTO(q.getId(), List.of(answer)),
+                new ExamSubmitRequest.QuestionAnswerDTO(q.getId(), List.of(answer)));
+
+        assertThrows(IllegalArgumentException.class, () -> BitsetGrader.grade(QuizFixtures.key(quiz), answers));
+    }
+
+    private static void assertMatchesLegacy(AnswerKey key, List<Question> questions,
+                                            List<ExamSubmitRequest.QuestionAnswerDTO> answers) {
+        GradeResult result = BitsetGrader.grade(key, answers);
+        Map<UUID, List<UUID>> submitted = answers.stream()
+                .collect(Collectors.toMap(
+                        ExamSubmitRequest.QuestionAnswerDTO::questionId,
+                        ExamSubmitRequest.QuestionAnswerDTO::answerIds
+                ));
+
+        double achievedScore = 0;
+        int correctCount = 0;
+        for (int i = 0; i < questions.size(); i++) {
+            Question q = questions.get(i);
+            boolean correct = legacyIsCorrect(q, submitted.getOrDefault(q.getId(), List.of()));
+            assertEquals(correct, result.isCorrect(i), "question " + i);
+            if (correct) {
+                achievedScore += q.getScore();
+                correctCount++;
+            }
+        }
+        assertEquals(achievedScore, result.achievedScore());
+        assertEquals(correctCount, result.correctCount());
+    }
+
+    // the grading loop examServiceImpl.submit used before BitsetGrader
+    private static boolean legacyIsCorrect(Question q, List<UUID> submittedIds) {
+        List<UUID> correctIds = q.getAnswers().stream()
+                .filter(Answer::getIsCorrect)
+                .map(Answer::getId)
+                .toList();
+
+        if (q.getType() == QuestionType.SINGLE_CHOICE) {
+            return submittedIds.size() == 1 && correctIds.contains(submittedIds.get(0));
+        }
+        return new HashSet<>(submittedIds).equals(new HashSet<>(correctIds));
+    }
+}
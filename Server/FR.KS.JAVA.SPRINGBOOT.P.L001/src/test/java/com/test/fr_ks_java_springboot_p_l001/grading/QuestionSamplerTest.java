@@ -0,0 +1,61 @@
+package com.test.fr_ks_java_springboot_p_l001.grading;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuestionSamplerTest {
+
+    @Test
+    void sameSeedPicksTheSameQuestionsInTheSameOrder() {
+        assertArrayEquals(QuestionSampler.pick(100, 10, 42L), QuestionSampler.pick(100, 10, 42L));
+        assertFalse(Arrays.equals(QuestionSampler.pick(1000, 20, 1L), QuestionSampler.pick(1000, 20, 2L)));
+    }
+
+    @Test
+    void picksDistinctIndexesOfThePool() {
+        for (long seed = 0; seed < 200; seed++) {
+            int poolSize = 1 + (int) (seed % 50);
+            int count = (int) (seed % (poolSize + 1));
+            int[] picked = QuestionSampler.pick(poolSize, count, seed);
+
+            assertEquals(count, picked.length);
+            assertEquals(count, Arrays.stream(picked).distinct().count(), "seed " + seed);
+            assertTrue(Arrays.stream(picked).allMatch(i -> i >= 0 && i < poolSize), "seed " + seed);
+        }
+    }
+
+    @Test
+    void pickingTheWholePoolIsAPermutation() {
+        int[] picked = QuestionSampler.pick(64, 64, 7L);
+        Arrays.sort(picked);
+        for (int i = 0; i < picked.length; i++) {
+            assertEquals(i, picked[i]);
+        }
+    }
+
+    @Test
+    void everyQuestionCanBeDrawn() {
+        boolean[] seen = new boolean[20];
+        for (long seed = 0; seed < 500; seed++) {
+            for (int i : QuestionSampler.pick(20, 3, seed)) {
+                seen[i] = true;
+            }
+        }
+        for (int i = 0; i < seen.length; i++) {
+            assertTrue(seen[i], "index " + i + " never drawn");
+        }
+    }
+
+    @Test
+    void refusesMoreQuestionsThanThePoolHas() {
+        assertThrows(IllegalArgumentException.class, () -> QuestionSampler.pick(5, 6, 1L));
+        assertThrows(IllegalArgumentException.class, () -> QuestionSampler.pick(5, -1, 1L));
+    }
+}
@@ -0,0 +1,86 @@
+package com.test.fr_ks_java_springboot_p_l001.grading;
+
+import com.test.fr_ks_java_springboot_p_l001.dto.submissions.ExamSubmitRequest;
+import com.test.fr_ks_java_springboot_p_l001.entity.Answer;
+import com.test.fr_ks_java_springboot_p_l001.entity.Question;
+import com.test.fr_ks_java_springboot_p_l001.entity.QuestionType;
+import com.test.fr_ks_java_springboot_p_l001.entity.Quiz;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Seeded quizzes and submissions for the grading tests, no database involved.
+ */
+final class QuizFixtures {
+
+    private static final Instant CREATED = Instant.parse("2025-01-01T00:00:00Z");
+
+    private QuizFixtures() {
+    }
+
+    static Quiz quiz(Random random, int questionCount) {
+        Quiz quiz = new Quiz();
+        quiz.setId(uuid(random));
+        quiz.setTitle("quiz");
+
+        for (int i = 0; i < questionCount; i++) {
+            Question q = new Question();
+            q.setId(uuid(random));
+            q.setContent("Question " + i);
+            q.setScore(1 + random.nextInt(10));
+            q.setType(random.nextBoolean() ? QuestionType.SINGLE_CHOICE : QuestionType.MULTIPLE_CHOICE);
+
+            // every tenth question spans two words of the bitmasks
+            int answerCount = i % 10 == 9 ? 70 : 2 + random.nextInt(5);
+            int single = random.nextInt(answerCount);
+            for (int j = 0; j < answerCount; j++) {
+                Answer a = new Answer();
+                a.setId(uuid(random));
+                a.setContent("Answer " + j);
+                a.setIsCorrect(q.getType() == QuestionType.SINGLE_CHOICE ? j == single : random.nextInt(3) == 0);
+                a.setCreatedAt(CREATED.plusNanos(j * 1000L));
+                a.setQuestion(q);
+                q.getAnswers().add(a);
+            }
+            quiz.getQuestions().add(q);
+        }
+        return quiz;
+    }
+
+    static AnswerKey key(Quiz quiz) {
+        return AnswerKey.of(quiz, quiz.getQuestions());
+    }
+
+    /**
+     * A submission mixing right, wrong, duplicated and foreign answers, with some questions left unanswered.
+     */
+    static List<ExamSubmitRequest.QuestionAnswerDTO> answers(Random random, Quiz quiz) {
+        List<ExamSubmitRequest.QuestionAnswerDTO> answers = new ArrayList<>();
+        for (Question q : quiz.getQuestions()) {
+            List<UUID> ids = q.getAnswers().stream().map(Answer::getId).toList();
+            UUID any = ids.get(random.nextInt(ids.size()));
+            List<UUID> picked = switch (random.nextInt(6)) {
+                case 0 -> null;
+                case 1 -> q.getAnswers().stream().filter(Answer::getIsCorrect).map(Answer::getId).toList();
+                case 2 -> List.of(any);
+                case 3 -> ids.stream().filter(id -> random.nextBoolean()).toList();
+                case 4 -> List.of(any, any);
+                default -> List.of(any, uuid(random));
+            };
+            if (picked != null) {
+                answers.add(new ExamSubmitRequest.QuestionAnswerDTO(q.getId(), picked));
+            }
+        }
+        Collections.shuffle(answers, random);
+        return answers;
+    }
+
+    static UUID uuid(Random random) {
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+}
@@ -0,0 +1,102 @@
+package com.test.fr_ks_java_springboot_p_l001.grading;
+
+import com.test.fr_ks_java_springboot_p_l001.entity.Answer;
+import com.test.fr_ks_java_springboot_p_l001.entity.Question;
+import com.test.fr_ks_java_springboot_p_l001.entity.Quiz;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResultCodecTest {
+
+    @Test
+    void decodesWhatWasEncoded() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            Quiz quiz = QuizFixtures.quiz(random, 1 + random.nextInt(40));
+            AnswerKey key = QuizFixtures.key(quiz);
+            GradeResult result = BitsetGrader.grade(key, QuizFixtures.answers(random, quiz));
+
+            List<ResultCodec.QuestionOutcome> outcomes = ResultCodec.decode(key, ResultCodec.encode(key, result));
+
+            assertEquals(key.questions().size(), outcomes.size());
+            for (int i = 0; i < outcomes.size(); i++) {
+                ResultCodec.QuestionOutcome o = outcomes.get(i);
+                List<UUID> submitted = result.submittedIds(i);
+                assertEquals(result.isCorrect(i), o.correct(), "question " + i);
+                assertEquals(result.hasForeignAnswer(i), o.foreignAnswer(), "question " + i);
+                assertEquals(submitted.size(), o.submittedCount(), "question " + i);
+                assertArrayEquals(ordinals(key.questions().get(i), submitted), o.ordinals(), "question " + i);
+            }
+        }
+    }
+
+    @Test
+    void reencodesDecodedOutcomesToTheSameBytes() {
+        Random random = new Random(3);
+        Quiz quiz = QuizFixtures.quiz(random, 25);
+        AnswerKey key = QuizFixtures.key(quiz);
+        byte[] blob = ResultCodec.encode(key, BitsetGrader.grade(key, QuizFixtures.answers(random, quiz)));
+
+        assertArrayEquals(blob, ResultCodec.encode(key, ResultCodec.decode(key, blob)));
+    }
+
+    @Test
+    void refusesResultsOfOtherQuestions() {
+        Random random = new Random(5);
+        Quiz quiz = QuizFixtures.quiz(random, 10);
+        AnswerKey key = QuizFixtures.key(quiz);
+        byte[] blob = ResultCodec.encode(key, BitsetGrader.grade(key, QuizFixtures.answers(random, quiz)));
+
+        Quiz other = QuizFixtures.quiz(random, 10);
+        assertThrows(IllegalStateException.class, () -> ResultCodec.decode(QuizFixtures.key(other), blob));
+
+        // same questions in another order: the entries are positional
+        List<Question> reordered = new ArrayList<>(quiz.getQuestions());
+        Collections.reverse(reordered);
+        assertThrows(IllegalStateException.class, () -> ResultCodec.decode(AnswerKey.of(quiz, reordered), blob));
+    }
+
+    @Test
+    void readsResultsAfterAnAnswerIsReflagged() {
+        Random random = new Random(11);
+        Quiz quiz = QuizFixtures.quiz(random, 10);
+        AnswerKey key = QuizFixtures.key(quiz);
+        byte[] blob = ResultCodec.encode(key, BitsetGrader.grade(key, QuizFixtures.answers(random, quiz)));
+
+        Answer answer = quiz.getQuestions().get(0).getAnswers().get(0);
+        answer.setIsCorrect(!answer.getIsCorrect());
+
+        assertEquals(10, ResultCodec.decode(QuizFixtures.key(quiz), blob).size());
+    }
+
+    @Test
+    void refusesTruncatedResults() {
+        Random random = new Random(13);
+        Quiz quiz = QuizFixtures.quiz(random, 10);
+        AnswerKey key = QuizFixtures.key(quiz);
+        byte[] blob = ResultCodec.encode(key, BitsetGrader.grade(key, QuizFixtures.answers(random, quiz)));
+
+        assertThrows(IllegalStateException.class,
+                () -> ResultCodec.decode(key, Arrays.copyOf(blob, blob.length - 1)));
+    }
+
+    // distinct submitted answers of the question, as ordinals into its answer ids, ascending
+    private static int[] ordinals(AnswerKey.QuestionKey q, List<UUID> submitted) {
+        return submitted.stream()
+                .mapToInt(q.answerIds()::indexOf)
+                .filter(ordinal -> ordinal >= 0)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+}
@@ -0,0 +1,51 @@
+package com.test.fr_ks_java_springboot_p_l001.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserIdBloomFilterTest {
+
+    private static final int CAPACITY = 10_000;
+
+    @Test
+    void containsEveryAddedId() {
+        UserIdBloomFilter filter = new UserIdBloomFilter(CAPACITY);
+        Random random = new Random(42);
+        UUID[] ids = new UUID[CAPACITY];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = new UUID(random.nextLong(), random.nextLong());
+            filter.add(ids[i]);
+        }
+
+        for (UUID id : ids) {
+            assertTrue(filter.mightContain(id));
+        }
+    }
+
+    @Test
+    void falsePositivesStayNearOnePercentAtCapacity() {
+        UserIdBloomFilter filter = new UserIdBloomFilter(CAPACITY);
+        Random random = new Random(42);
+        for (int i = 0; i < CAPACITY; i++) {
+            filter.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < CAPACITY; i++) {
+            if (filter.mightContain(new UUID(random.nextLong(), random.nextLong()))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < CAPACITY * 3 / 100, falsePositives + " false positives");
+    }
+
+    @Test
+    void anEmptyFilterContainsNothing() {
+        assertFalse(new UserIdBloomFilter(CAPACITY).mightContain(UUID.randomUUID()));
+    }
+}
@@ -0,0 +1,88 @@
+package com.test.fr_ks_java_springboot_p_l001.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketMapTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    @Test
+    void allowsABurstThenRefillsContinuously() {
+        TokenBucketMap buckets = new TokenBucketMap(new RateLimit(3, Duration.ofSeconds(1)), 6400);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, buckets.tryAcquire("ip", 0));
+        }
+        long wait = buckets.tryAcquire("ip", 0);
+        // one token comes back every third of a second
+        assertTrue(Math.abs(wait - SECOND / 3) < 1000, "wait " + wait);
+
+        assertEquals(0, buckets.tryAcquire("ip", SECOND / 3 + 1));
+        assertTrue(buckets.tryAcquire("ip", SECOND / 3 + 2) > 0);
+        assertEquals(0, buckets.tryAcquire("ip", 2 * SECOND));
+    }
+
+    @Test
+    void dropsAnIdleBucketOnceItHasRefilled() {
+        // 100 buckets per stripe, far from full
+        TokenBucketMap buckets = new TokenBucketMap(new RateLimit(1, Duration.ofMinutes(1)), 6400);
+        List<String> keys = sameStripe("a", 2);
+
+        buckets.tryAcquire(keys.get(0), 0);
+        buckets.tryAcquire(keys.get(1), MINUTE);
+
+        assertEquals(1, buckets.size());
+    }
+
+    @Test
+    void keepsALimitedBucketWhenItsStripeIsFlooded() {
+        // one bucket per stripe
+        TokenBucketMap buckets = new TokenBucketMap(new RateLimit(1, Duration.ofMinutes(1)), 64);
+        List<String> keys = sameStripe("victim", 50);
+
+        assertEquals(0, buckets.tryAcquire("victim", 0));
+        assertTrue(buckets.tryAcquire("victim", 0) > 0);
+
+        long now = TimeUnit.SECONDS.toNanos(10);
+        for (String key : keys.subList(1, keys.size())) {
+            // new keys are limited until the drained bucket has refilled
+            long wait = buckets.tryAcquire(key, now);
+            assertTrue(Math.abs(wait - 50 * SECOND) < 1000, "wait " + wait);
+        }
+        assertTrue(buckets.tryAcquire("victim", now) > 0);
+        assertEquals(1, buckets.size());
+
+        // refilled, the bucket is no different from a new one and makes room
+        assertEquals(0, buckets.tryAcquire(keys.get(1), 2 * MINUTE));
+        assertEquals(1, buckets.size());
+    }
+
+    /**
+     * {@code count} keys, starting with {@code key}, that land in the same stripe.
+     */
+    private static List<String> sameStripe(String key, int count) {
+        List<String> keys = new ArrayList<>(List.of(key));
+        for (int i = 0; keys.size() < count; i++) {
+            String candidate = key + "-" + i;
+            if (stripe(candidate) == stripe(key)) {
+                keys.add(candidate);
+            }
+        }
+        return keys;
+    }
+
+    // same spreading as TokenBucketMap.tryAcquire
+    private static int stripe(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & 63;
+    }
+}